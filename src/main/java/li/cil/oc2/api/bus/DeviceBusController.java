@@ -41,6 +41,19 @@ public interface DeviceBusController {
      */
     void scheduleBusScan();
 
+    /**
+     * Schedules a scan caused by a change in the neighbors of the specified element.
+     * <p>
+     * Controllers may use this information to only re-query the neighbors of the specified
+     * element, instead of re-querying all elements on the bus. Bus elements should prefer
+     * calling this over {@link #scheduleBusScan()} when they know their neighbors changed.
+     *
+     * @param element the element whose neighbors changed.
+     */
+    default void scheduleBusScan(final DeviceBusElement element) {
+        scheduleBusScan();
+    }
+
     /**
      * Forces a device map rebuild.
      * <p>
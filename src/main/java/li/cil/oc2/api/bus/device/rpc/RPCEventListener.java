@@ -0,0 +1,22 @@
+package li.cil.oc2.api.bus.device.rpc;
+
+import javax.annotation.Nullable;
+
+/**
+ * Receives events published by an {@link RPCEventSource}.
+ * <p>
+ * Listeners may be called from any thread, and must therefore be thread-safe.
+ */
+@FunctionalInterface
+public interface RPCEventListener {
+    /**
+     * Called when the device this listener is registered with publishes an event.
+     * <p>
+     * The data of the event will be serialized to JSON when the event is delivered
+     * to the VM, so it should be a simple value, array or data object.
+     *
+     * @param name the name of the event.
+     * @param data optional data associated with the event.
+     */
+    void handleEvent(String name, @Nullable Object data);
+}
@@ -0,0 +1,33 @@
+package li.cil.oc2.api.bus.device.rpc;
+
+import li.cil.oc2.api.bus.device.object.ObjectDevice;
+
+/**
+ * May be implemented by {@link RPCDevice}s to notify programs running in a VM of changes.
+ * <p>
+ * Programs may subscribe to events of a device instead of repeatedly calling methods of
+ * the device to check for changes. Subscribed events are queued and delivered to the VM
+ * when the program waits for them, waking it up.
+ * <p>
+ * When using {@link ObjectDevice}s, the target object may implement this interface to have
+ * the object device forward listener registrations to it.
+ */
+public interface RPCEventSource {
+    /**
+     * Registers a listener to be notified of events published by this device.
+     * <p>
+     * Registering the same listener multiple times has no effect.
+     *
+     * @param listener the listener to register.
+     */
+    void addEventListener(RPCEventListener listener);
+
+    /**
+     * Unregisters a previously registered listener.
+     * <p>
+     * Unregistering a listener that is not registered has no effect.
+     *
+     * @param listener the listener to unregister.
+     */
+    void removeEventListener(RPCEventListener listener);
+}
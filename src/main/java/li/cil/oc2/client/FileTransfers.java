@@ -0,0 +1,188 @@
+package li.cil.oc2.client;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
+import li.cil.oc2.client.gui.FileChooserScreen;
+import li.cil.oc2.common.network.Network;
+import li.cil.oc2.common.network.message.ClientCanceledImportFileMessage;
+import li.cil.oc2.common.network.message.ImportedFileDataMessage;
+import li.cil.oc2.common.network.message.ImportedFileMessage;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.text.Color;
+import net.minecraft.util.text.TranslationTextComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static li.cil.oc2.common.bus.device.item.FileImportExportCardItemDevice.IMPORT_CHUNK_SIZE;
+import static li.cil.oc2.common.bus.device.item.FileImportExportCardItemDevice.IMPORT_WINDOW_SIZE;
+import static li.cil.oc2.common.bus.device.item.FileImportExportCardItemDevice.MAX_TRANSFERRED_FILE_SIZE;
+import static li.cil.oc2.common.util.TranslationUtils.text;
+
+/**
+ * Client side of file transfers performed by the File Import/Export Card.
+ * <p>
+ * Imported files are streamed to the server in chunks. After an initial window of chunks, the
+ * server requests more chunks as the VM consumes them. Exported files are received in chunks
+ * and saved once complete.
+ * <p>
+ * All methods are expected to be called from the main client thread.
+ */
+public final class FileTransfers {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final TranslationTextComponent FILE_TOO_LARGE_TEXT = text("message.{mod}.import_file.file_too_large");
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final Int2ObjectArrayMap<ImportedFile> IMPORTS = new Int2ObjectArrayMap<>();
+    private static final Int2ObjectArrayMap<ExportedFile> EXPORTS = new Int2ObjectArrayMap<>();
+
+    ///////////////////////////////////////////////////////////////////
+
+    public static void beginImport(final int id, final Path path) {
+        cancelImport(id);
+
+        try {
+            final long size = Files.size(path);
+            if (size > MAX_TRANSFERRED_FILE_SIZE) {
+                Network.INSTANCE.sendToServer(new ClientCanceledImportFileMessage(id));
+                Minecraft.getInstance().player.displayClientMessage(FILE_TOO_LARGE_TEXT
+                        .withStyle(s -> s.withColor(Color.fromRgb(0xFFA0A0))), false);
+                return;
+            }
+
+            final String fileName = path.getFileName().toString();
+            IMPORTS.put(id, new ImportedFile(Files.newInputStream(path), (int) size));
+            Network.INSTANCE.sendToServer(new ImportedFileMessage(id, fileName, (int) size));
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            Network.INSTANCE.sendToServer(new ClientCanceledImportFileMessage(id));
+            return;
+        }
+
+        sendImportedFileData(id, IMPORT_WINDOW_SIZE);
+    }
+
+    public static void sendImportedFileData(final int id, final int count) {
+        final ImportedFile file = IMPORTS.get(id);
+        if (file == null) {
+            return;
+        }
+
+        try {
+            for (int i = 0; i < count && file.remaining > 0; i++) {
+                final byte[] chunk = readChunk(file.stream, Math.min(file.remaining, IMPORT_CHUNK_SIZE));
+                Network.INSTANCE.sendToServer(new ImportedFileDataMessage(id, chunk));
+                file.remaining -= chunk.length;
+            }
+
+            if (file.remaining <= 0) {
+                cancelImport(id);
+            }
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            cancelImport(id);
+            Network.INSTANCE.sendToServer(new ClientCanceledImportFileMessage(id));
+        }
+    }
+
+    public static void cancelImport(final int id) {
+        final ImportedFile file = IMPORTS.remove(id);
+        if (file != null) {
+            try {
+                file.stream.close();
+            } catch (final IOException e) {
+                LOGGER.error(e);
+            }
+        }
+    }
+
+    public static void beginExportedFile(final int id, final String name, final int size) {
+        if (size < 0 || size > MAX_TRANSFERRED_FILE_SIZE) {
+            return;
+        }
+
+        final ExportedFile file = new ExportedFile(name, size);
+        if (file.isComplete()) {
+            saveExportedFile(file);
+        } else {
+            EXPORTS.put(id, file);
+        }
+    }
+
+    public static void addExportedFileData(final int id, final byte[] data) {
+        final ExportedFile file = EXPORTS.get(id);
+        if (file == null) {
+            return;
+        }
+
+        if (data.length > file.data.length - file.received) {
+            EXPORTS.remove(id);
+            return;
+        }
+
+        System.arraycopy(data, 0, file.data, file.received, data.length);
+        file.received += data.length;
+
+        if (file.isComplete()) {
+            EXPORTS.remove(id);
+            saveExportedFile(file);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static byte[] readChunk(final InputStream stream, final int length) throws IOException {
+        final byte[] buffer = new byte[length];
+        int count = 0;
+        while (count < buffer.length) {
+            final int read = stream.read(buffer, count, buffer.length - count);
+            if (read < 0) {
+                throw new EOFException(); // File changed since we started.
+            }
+            count += read;
+        }
+        return buffer;
+    }
+
+    private static void saveExportedFile(final ExportedFile file) {
+        FileChooserScreen.openFileChooserForSave(file.name, path -> {
+            try {
+                Files.write(path, file.data);
+            } catch (final IOException e) {
+                LOGGER.error(e);
+            }
+        });
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final class ImportedFile {
+        public final InputStream stream;
+        public int remaining;
+
+        public ImportedFile(final InputStream stream, final int size) {
+            this.stream = stream;
+            this.remaining = size;
+        }
+    }
+
+    private static final class ExportedFile {
+        public final String name;
+        public final byte[] data;
+        public int received;
+
+        public ExportedFile(final String name, final int size) {
+            this.name = name;
+            this.data = new byte[size];
+        }
+
+        public boolean isComplete() {
+            return received == data.length;
+        }
+    }
+}
@@ -3,13 +3,19 @@ package li.cil.oc2.common;
 import li.cil.oc2.common.bus.device.data.FileSystems;
 import li.cil.oc2.common.bus.device.rpc.RPCItemStackTagFilters;
 import li.cil.oc2.common.bus.device.rpc.RPCMethodParameterTypeAdapters;
+import li.cil.oc2.common.bus.device.util.Devices;
+import li.cil.oc2.common.bus.device.util.PolledEventSource;
 import li.cil.oc2.common.capabilities.Capabilities;
+import li.cil.oc2.common.command.VMStatisticsCommand;
+import li.cil.oc2.common.entity.RobotBlockChangeTracker;
 import li.cil.oc2.common.integration.IMC;
 import li.cil.oc2.common.network.Network;
 import li.cil.oc2.common.serialization.BlobStorage;
 import li.cil.oc2.common.util.ServerScheduler;
 import li.cil.oc2.common.vm.Allocator;
+import li.cil.oc2.common.vm.VMStatistics;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.event.server.FMLServerAboutToStartEvent;
@@ -19,15 +25,21 @@ public final class CommonSetup {
     @SubscribeEvent
     public static void handleSetupEvent(final FMLCommonSetupEvent event) {
         Capabilities.initialize();
+        Devices.initialize();
         FileSystems.initialize();
         IMC.initialize();
         Network.initialize();
+        PolledEventSource.initialize();
         RPCItemStackTagFilters.initialize();
         RPCMethodParameterTypeAdapters.initialize();
+        RobotBlockChangeTracker.initialize();
         ServerScheduler.initialize();
+        VMStatistics.initialize();
+        VMStatisticsCommand.initialize();
 
         MinecraftForge.EVENT_BUS.addListener(CommonSetup::handleServerAboutToStart);
         MinecraftForge.EVENT_BUS.addListener(CommonSetup::handleServerStopped);
+        MinecraftForge.EVENT_BUS.addListener(CommonSetup::handleWorldSave);
     }
 
     ///////////////////////////////////////////////////////////////////
@@ -41,4 +53,8 @@ public final class CommonSetup {
         Allocator.resetAndCheckLeaks();
         FileSystems.reset();
     }
+
+    private static void handleWorldSave(final WorldEvent.Save event) {
+        BlobStorage.requestFlush();
+    }
 }
@@ -1,5 +1,7 @@
 package li.cil.oc2.common;
 
+import li.cil.oc2.common.ConfigManager.Max;
+import li.cil.oc2.common.ConfigManager.Min;
 import li.cil.oc2.common.ConfigManager.Path;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
@@ -13,6 +15,13 @@ public final class Config {
     @Path("vm") public static int maxHardDriveSize = 8 * Constants.MEGABYTE;
     @Path("vm") public static int maxFlashMemorySize = 4 * Constants.KILOBYTE;
     @Path("vm") public static int maxFloppySize = 512 * Constants.KILOBYTE;
+    @Path("vm") public static int blobFlushBytesPerSecond = 64 * Constants.MEGABYTE;
+    @Path("vm") @Min(0) public static int hibernateAfterIdleSeconds = 0;
+
+    @Path("vm.computers") @Min(Constants.MIN_CPU_FREQUENCY) @Max(Constants.MAX_CPU_FREQUENCY) public static int computerCpuFrequency = Constants.CPU_FREQUENCY;
+    @Path("vm.computers") @Min(0.1) @Max(1) public static double computerSchedulingWeight = 1;
+    @Path("vm.robots") @Min(Constants.MIN_CPU_FREQUENCY) @Max(Constants.MAX_CPU_FREQUENCY) public static int robotCpuFrequency = Constants.CPU_FREQUENCY;
+    @Path("vm.robots") @Min(0.1) @Max(1) public static double robotSchedulingWeight = 1;
 
     @Path("energy.blocks") public static double busCableEnergyPerTick = 0.1;
     @Path("energy.blocks") public static double busInterfaceEnergyPerTick = 0.5;
@@ -30,12 +39,14 @@ public final class Config {
     @Path("energy.items") public static int networkInterfaceEnergyPerTick = 1;
     @Path("energy.items") public static int fileImportExportCardEnergyPerTick = 1;
     @Path("energy.items") public static int soundCardEnergyPerTick = 1;
+    @Path("energy.items") public static int sharedFolderCardEnergyPerTick = 1;
     @Path("energy.items") public static int blockOperationsModuleEnergyPerTick = 2;
     @Path("energy.items") public static int inventoryOperationsModuleEnergyPerTick = 1;
 
     @Path("gameplay") public static int blockOperationsModuleToolLevel = Items.DIAMOND_PICKAXE.getHarvestLevel(new ItemStack(Items.DIAMOND_PICKAXE), ToolType.PICKAXE, null, null);
 
     @Path("admin") public static UUID fakePlayerUUID = UUID.fromString("e39dd9a7-514f-4a2d-aa5e-b6030621416d");
+    @Path("admin") public static String sharedFolderPath = "";
 
     public static boolean computersUseEnergy() {
         return computerEnergyPerTick > 0 && computerEnergyStorage > 0;
@@ -48,4 +59,21 @@ public final class Config {
     public static boolean chargerUseEnergy() {
         return chargerEnergyPerTick > 0 && chargerEnergyStorage > 0;
     }
+
+    /**
+     * Scales the base energy consumption of a machine by its CPU frequency.
+     * <p>
+     * Base energy values are specified for machines running at the default frequency.
+     *
+     * @param energyPerTick the base energy consumption.
+     * @param cpuFrequency  the CPU frequency of the machine.
+     * @return the energy consumption of the machine.
+     */
+    public static int getCpuEnergyPerTick(final int energyPerTick, final int cpuFrequency) {
+        return (int) Math.ceil(energyPerTick * (double) cpuFrequency / Constants.CPU_FREQUENCY);
+    }
+
+    public static boolean sharedFolderEnabled() {
+        return !sharedFolderPath.isEmpty();
+    }
 }
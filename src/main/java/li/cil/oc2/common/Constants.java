@@ -13,6 +13,8 @@ public final class Constants {
     public static int PAGE_SIZE = 4 * 1024;
 
     public static final int CPU_FREQUENCY = 25_000_000;
+    public static final int MIN_CPU_FREQUENCY = 1_000_000;
+    public static final int MAX_CPU_FREQUENCY = 100_000_000;
 
     public static final int SECONDS_TO_TICKS = 20;
 
@@ -1,15 +1,20 @@
 package li.cil.oc2.common.block;
 
+import li.cil.oc2.common.tileentity.ChargerTileEntity;
 import li.cil.oc2.common.tileentity.TileEntities;
 import net.minecraft.block.*;
 import net.minecraft.block.material.Material;
+import net.minecraft.entity.Entity;
 import net.minecraft.item.BlockItemUseContext;
 import net.minecraft.state.StateContainer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.Direction;
 import net.minecraft.util.Mirror;
 import net.minecraft.util.Rotation;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockReader;
+import net.minecraft.world.IWorldReader;
+import net.minecraft.world.World;
 
 import javax.annotation.Nullable;
 
@@ -52,6 +57,22 @@ public final class ChargerBlock extends BreakableBlock {
         return super.defaultBlockState().setValue(HorizontalBlock.FACING, context.getHorizontalDirection().getOpposite());
     }
 
+    @SuppressWarnings("deprecation")
+    @Override
+    public void neighborChanged(final BlockState state, final World world, final BlockPos pos, final Block changedBlock, final BlockPos changedBlockPos, final boolean isMoving) {
+        wakeCharger(world, pos);
+    }
+
+    @Override
+    public void onNeighborChange(final BlockState state, final IWorldReader world, final BlockPos pos, final BlockPos neighbor) {
+        wakeCharger(world, pos);
+    }
+
+    @Override
+    public void stepOn(final World world, final BlockPos pos, final Entity entity) {
+        wakeCharger(world, pos);
+    }
+
     ///////////////////////////////////////////////////////////////////
 
     @Override
@@ -59,4 +80,11 @@ public final class ChargerBlock extends BreakableBlock {
         super.createBlockStateDefinition(builder);
         builder.add(HorizontalBlock.FACING);
     }
+
+    private static void wakeCharger(final IBlockReader world, final BlockPos pos) {
+        final TileEntity tileEntity = world.getBlockEntity(pos);
+        if (tileEntity instanceof ChargerTileEntity) {
+            ((ChargerTileEntity) tileEntity).wake();
+        }
+    }
 }
@@ -14,6 +14,7 @@ import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockReader;
 import net.minecraft.world.IWorldReader;
+import net.minecraft.world.World;
 
 public final class RedstoneInterfaceBlock extends HorizontalBlock {
     public RedstoneInterfaceBlock() {
@@ -72,6 +73,16 @@ public final class RedstoneInterfaceBlock extends HorizontalBlock {
         return getSignal(state, world, pos, side);
     }
 
+    @SuppressWarnings("deprecation")
+    @Override
+    public void neighborChanged(final BlockState state, final World world, final BlockPos pos, final Block changedBlock, final BlockPos changedBlockPos, final boolean isMoving) {
+        final TileEntity tileEntity = world.getBlockEntity(pos);
+        if (tileEntity instanceof RedstoneInterfaceTileEntity) {
+            final RedstoneInterfaceTileEntity redstoneInterface = (RedstoneInterfaceTileEntity) tileEntity;
+            redstoneInterface.handleNeighborChanged();
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////
 
     @Override
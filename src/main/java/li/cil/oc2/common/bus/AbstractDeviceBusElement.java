@@ -1,6 +1,6 @@
 package li.cil.oc2.common.bus;
 
-import it.unimi.dsi.fastutil.objects.Object2IntArrayMap;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import li.cil.oc2.api.bus.DeviceBusController;
 import li.cil.oc2.api.bus.DeviceBusElement;
@@ -11,7 +11,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public abstract class AbstractDeviceBusElement implements DeviceBusElement {
-    protected final Object2IntArrayMap<Device> devices = new Object2IntArrayMap<>();
+    protected final Object2IntLinkedOpenHashMap<Device> devices = new Object2IntLinkedOpenHashMap<>();
     protected final HashSet<DeviceBusController> controllers = new HashSet<>();
 
     ///////////////////////////////////////////////////////////////////
@@ -72,7 +72,7 @@ public abstract class AbstractDeviceBusElement implements DeviceBusElement {
     @Override
     public void scheduleScan() {
         for (final DeviceBusController controller : controllers) {
-            controller.scheduleBusScan();
+            controller.scheduleBusScan(this);
         }
     }
 
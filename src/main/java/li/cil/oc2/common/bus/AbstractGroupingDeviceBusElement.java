@@ -1,5 +1,6 @@
 package li.cil.oc2.common.bus;
 
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import li.cil.oc2.api.bus.device.Device;
 import li.cil.oc2.common.bus.device.util.AbstractDeviceInfo;
 import li.cil.oc2.common.util.ItemDeviceUtils;
@@ -20,6 +21,10 @@ public abstract class AbstractGroupingDeviceBusElement<TProvider extends IForgeR
     protected final int groupCount;
     protected final ArrayList<HashSet<TDeviceInfo>> groups;
 
+    // Index of the group each device is in, for fast identifier lookups. Keyed by identity,
+    // because that is what we get passed back via getLocalDevices().
+    private final Reference2IntOpenHashMap<Device> groupIndexByDevice = new Reference2IntOpenHashMap<>();
+
     ///////////////////////////////////////////////////////////////////
 
     protected final UUID[] groupIds;
@@ -33,6 +38,8 @@ public abstract class AbstractGroupingDeviceBusElement<TProvider extends IForgeR
         this.groupIds = new UUID[groupCount];
         this.groupData = new CompoundNBT[groupCount];
 
+        groupIndexByDevice.defaultReturnValue(-1);
+
         for (int i = 0; i < groupCount; i++) {
             groups.add(new HashSet<>());
             groupIds[i] = UUID.randomUUID();
@@ -82,6 +89,12 @@ public abstract class AbstractGroupingDeviceBusElement<TProvider extends IForgeR
 
     @Override
     public Optional<UUID> getDeviceIdentifier(final Device device) {
+        final int index = groupIndexByDevice.getInt(device);
+        if (index >= 0) {
+            return Optional.of(groupIds[index]);
+        }
+
+        // Not one of our instances, but may still be equal to one of our devices.
         for (int i = 0; i < groupCount; i++) {
             final HashSet<TDeviceInfo> group = groups.get(i);
             for (final TDeviceInfo deviceInfo : group) {
@@ -116,6 +129,19 @@ public abstract class AbstractGroupingDeviceBusElement<TProvider extends IForgeR
         oldDevices.removeAll(removedDevices);
         oldDevices.addAll(newDevices);
 
+        for (final TDeviceInfo info : removedDevices) {
+            if (groupIndexByDevice.getInt(info.device) == index) {
+                removeFromGroupIndex(info);
+            }
+        }
+        for (final TDeviceInfo info : addedDevices) {
+            // Lowest group index wins, if the same device is present in multiple groups.
+            final int currentIndex = groupIndexByDevice.getInt(info.device);
+            if (currentIndex < 0 || currentIndex > index) {
+                groupIndexByDevice.put(info.device, index);
+            }
+        }
+
         final CompoundNBT devicesTag = groupData[index];
         for (final TDeviceInfo deviceInfo : removedDevices) {
             ItemDeviceUtils.getItemDeviceDataKey(deviceInfo.provider).ifPresent(devicesTag::remove);
@@ -133,6 +159,18 @@ public abstract class AbstractGroupingDeviceBusElement<TProvider extends IForgeR
 
     ///////////////////////////////////////////////////////////////////
 
+    private void removeFromGroupIndex(final TDeviceInfo info) {
+        groupIndexByDevice.removeInt(info.device);
+
+        // The device may still be present in another group.
+        for (int i = 0; i < groupCount; i++) {
+            if (groups.get(i).contains(info)) {
+                groupIndexByDevice.put(info.device, i);
+                return;
+            }
+        }
+    }
+
     private void saveGroup(final int index) {
         final CompoundNBT devicesTag = new CompoundNBT();
         for (final TDeviceInfo deviceInfo : groups.get(index)) {
@@ -8,6 +8,7 @@ import li.cil.oc2.common.util.Event;
 import li.cil.oc2.common.util.ParameterizedEvent;
 import net.minecraftforge.common.util.LazyOptional;
 
+import javax.annotation.Nullable;
 import java.util.*;
 
 import static java.util.Collections.emptySet;
@@ -23,7 +24,7 @@ public class CommonDeviceBusController implements DeviceBusController {
 
     ///////////////////////////////////////////////////////////////////
 
-    private static final int MAX_BUS_ELEMENT_COUNT = 128;
+    private static final int MAX_BUS_ELEMENT_COUNT = 512;
     private static final int INCOMPLETE_RETRY_INTERVAL = 10 * Constants.SECONDS_TO_TICKS;
     private static final int BAD_CONFIGURATION_RETRY_INTERVAL = 5 * Constants.SECONDS_TO_TICKS;
 
@@ -39,11 +40,14 @@ public class CommonDeviceBusController implements DeviceBusController {
     private final int baseEnergyConsumption;
 
     private final Set<DeviceBusElement> elements = new HashSet<>();
+    private final HashMap<DeviceBusElement, List<DeviceBusElement>> neighborsByElement = new HashMap<>();
+    private final Set<LazyOptional<DeviceBusElement>> trackedNeighbors = Collections.newSetFromMap(new WeakHashMap<>());
     private final HashSet<Device> devices = new HashSet<>();
     private final HashMap<Device, Set<UUID>> deviceIds = new HashMap<>();
 
     private BusState state = BusState.SCAN_PENDING;
     private int scanDelay;
+    private boolean isDeviceScanPending = true;
 
     private int energyConsumption;
 
@@ -65,6 +69,7 @@ public class CommonDeviceBusController implements DeviceBusController {
         }
 
         elements.clear();
+        neighborsByElement.clear();
     }
 
     public BusState getState() {
@@ -77,6 +82,18 @@ public class CommonDeviceBusController implements DeviceBusController {
 
     @Override
     public void scheduleBusScan() {
+        // We don't know what changed, so query all elements for their neighbors again.
+        neighborsByElement.clear();
+
+        scanDelay = 0; // scan as soon as possible
+        state = BusState.SCAN_PENDING;
+    }
+
+    @Override
+    public void scheduleBusScan(final DeviceBusElement element) {
+        // Only the neighbors of this element changed, the rest of the bus is still valid.
+        neighborsByElement.remove(element);
+
         scanDelay = 0; // scan as soon as possible
         state = BusState.SCAN_PENDING;
     }
@@ -85,36 +102,38 @@ public class CommonDeviceBusController implements DeviceBusController {
     public void scanDevices() {
         onBeforeScan();
 
+        // Collect new devices and their identifiers, noting added devices as we go, then find
+        // removed devices in a single pass over the old devices.
         final HashSet<Device> newDevices = new HashSet<>();
         final HashMap<Device, Set<UUID>> newDeviceIds = new HashMap<>();
+        final ArrayList<Device> addedDevices = new ArrayList<>();
         for (final DeviceBusElement element : elements) {
             for (final Device device : element.getLocalDevices()) {
-                newDevices.add(device);
+                if (newDevices.add(device) && !devices.contains(device)) {
+                    addedDevices.add(device);
+                }
                 element.getDeviceIdentifier(device).ifPresent(identifier -> newDeviceIds
                         .computeIfAbsent(device, unused -> new HashSet<>()).add(identifier));
             }
         }
 
-        final HashSet<Device> removedDevices = new HashSet<>(devices);
-        removedDevices.removeAll(newDevices);
-        onDevicesRemoved(removedDevices);
+        final ArrayList<Device> removedDevices = new ArrayList<>();
+        for (final Device device : devices) {
+            if (!newDevices.contains(device)) {
+                removedDevices.add(device);
+            }
+        }
 
-        final HashSet<Device> addedDevices = new HashSet<>(newDevices);
-        addedDevices.removeAll(devices);
+        onDevicesRemoved(removedDevices);
         onDevicesAdded(addedDevices);
 
         final boolean didDevicesChange = !removedDevices.isEmpty() || !addedDevices.isEmpty();
-        final boolean didDeviceIdsChange;
         if (didDevicesChange) {
             devices.clear();
             devices.addAll(newDevices);
-
-            didDeviceIdsChange = true;
-        } else {
-            didDeviceIdsChange = deviceIds.entrySet().stream().anyMatch(entry ->
-                    !Objects.equals(entry.getValue(), newDeviceIds.get(entry.getKey())));
         }
 
+        final boolean didDeviceIdsChange = !deviceIds.equals(newDeviceIds);
         if (didDeviceIdsChange) {
             deviceIds.clear();
             deviceIds.putAll(newDeviceIds);
@@ -144,13 +163,13 @@ public class CommonDeviceBusController implements DeviceBusController {
 
         assert scanDelay == -1;
 
-        // We stay registered with elements until we scan so that other controllers on the same bus
-        // can detect us in the meantime (for multiple controller detection).
-        clearElements();
-
+        // Walk the bus using the cached neighbors of each element, and only query elements for
+        // their neighbors that we have no valid cached data for. Elements drop out of the cache
+        // when they tell us their neighbors changed, or when they get invalidated. This way a
+        // change to the bus only costs a walk over the in-memory graph, plus queries for the
+        // elements immediately affected by the change.
         final HashSet<DeviceBusElement> closed = new HashSet<>();
         final Stack<DeviceBusElement> open = new Stack<>();
-        final ArrayList<LazyOptional<DeviceBusElement>> optionals = new ArrayList<>();
 
         closed.add(root);
         open.add(root);
@@ -158,39 +177,45 @@ public class CommonDeviceBusController implements DeviceBusController {
         while (!open.isEmpty()) {
             final DeviceBusElement element = open.pop();
 
-            final Optional<Collection<LazyOptional<DeviceBusElement>>> elementNeighbors = element.getNeighbors();
-            if (!elementNeighbors.isPresent()) {
-                scanDelay = INCOMPLETE_RETRY_INTERVAL;
-                state = BusState.INCOMPLETE;
-                return;
+            List<DeviceBusElement> neighbors = neighborsByElement.get(element);
+            if (neighbors == null) {
+                neighbors = queryNeighbors(element);
+                if (neighbors == null) {
+                    clearElements();
+                    scanDelay = INCOMPLETE_RETRY_INTERVAL;
+                    state = BusState.INCOMPLETE;
+                    return;
+                }
+                neighborsByElement.put(element, neighbors);
             }
 
-            elementNeighbors.ifPresent(neighbors -> {
-                for (final LazyOptional<DeviceBusElement> neighbor : neighbors) {
-                    neighbor.ifPresent(neighborElement -> {
-                        if (closed.add(neighborElement)) {
-                            open.add(neighborElement);
-                            optionals.add(neighbor);
-                        }
-                    });
+            for (final DeviceBusElement neighbor : neighbors) {
+                if (closed.add(neighbor)) {
+                    open.add(neighbor);
                 }
-            });
+            }
 
             if (closed.size() > MAX_BUS_ELEMENT_COUNT) {
+                clearElements();
                 scanDelay = BAD_CONFIGURATION_RETRY_INTERVAL;
                 state = BusState.TOO_COMPLEX;
                 return;
             }
         }
 
+        neighborsByElement.keySet().retainAll(closed);
+
         final HashSet<DeviceBusController> controllers = new HashSet<>();
         for (final DeviceBusElement element : closed) {
             controllers.addAll(element.getControllers());
-            element.addController(this);
         }
 
-        controllers.remove(this); // Just in case...
-        elements.addAll(closed);
+        controllers.remove(this);
+
+        // We stay registered with elements until we scan so that other controllers on the same bus
+        // can detect us in the meantime (for multiple controller detection). Only register with
+        // and unregister from elements that actually joined or left the bus.
+        final boolean didElementsChange = updateElements(closed);
 
         // If there's any controllers on the bus that are not us, enter error state and
         // trigger a scan for those controllers, too, so they may enter error state.
@@ -199,20 +224,22 @@ public class CommonDeviceBusController implements DeviceBusController {
                 controller.scheduleBusScan();
             }
 
+            isDeviceScanPending = true;
             state = BusState.MULTIPLE_CONTROLLERS;
             scanDelay = BAD_CONFIGURATION_RETRY_INTERVAL;
             return;
         }
 
-        // Rescan if any bus element gets invalidated.
-        for (final LazyOptional<DeviceBusElement> optional : optionals) {
-            assert optional.isPresent();
-            optional.addListener(unused -> scheduleBusScan());
-        }
+        // Devices only change with the set of elements; changes to the devices of individual
+        // elements are reported by them via scanDevices(). So if the bus is still made up of
+        // the same elements, there is no need to pause the VM for a device scan.
+        if (didElementsChange || isDeviceScanPending) {
+            onAfterBusScan();
 
-        onAfterBusScan();
+            scanDevices();
 
-        scanDevices();
+            isDeviceScanPending = false;
+        }
 
         updateEnergyConsumption();
 
@@ -253,6 +280,65 @@ public class CommonDeviceBusController implements DeviceBusController {
         }
 
         elements.clear();
+        isDeviceScanPending = true;
+    }
+
+    private boolean updateElements(final Set<DeviceBusElement> newElements) {
+        boolean didChange = false;
+
+        final Iterator<DeviceBusElement> iterator = elements.iterator();
+        while (iterator.hasNext()) {
+            final DeviceBusElement element = iterator.next();
+            if (!newElements.contains(element)) {
+                element.removeController(this);
+                iterator.remove();
+                didChange = true;
+            }
+        }
+
+        for (final DeviceBusElement element : newElements) {
+            if (elements.add(element)) {
+                element.addController(this);
+                didChange = true;
+            }
+        }
+
+        return didChange;
+    }
+
+    @Nullable
+    private List<DeviceBusElement> queryNeighbors(final DeviceBusElement element) {
+        final Optional<Collection<LazyOptional<DeviceBusElement>>> elementNeighbors = element.getNeighbors();
+        if (!elementNeighbors.isPresent()) {
+            return null;
+        }
+
+        final ArrayList<DeviceBusElement> neighbors = new ArrayList<>();
+        for (final LazyOptional<DeviceBusElement> neighbor : elementNeighbors.get()) {
+            neighbor.ifPresent(neighborElement -> {
+                neighbors.add(neighborElement);
+
+                // Only add one listener per capability, we see the same ones over and over.
+                if (trackedNeighbors.add(neighbor)) {
+                    neighbor.addListener(unused -> handleElementInvalidated(neighborElement));
+                }
+            });
+        }
+
+        return neighbors;
+    }
+
+    private void handleElementInvalidated(final DeviceBusElement element) {
+        if (!elements.contains(element) && !neighborsByElement.containsKey(element)) {
+            return;
+        }
+
+        // The element is gone, and the elements next to it may now see a replacement.
+        neighborsByElement.remove(element);
+        neighborsByElement.values().removeIf(neighbors -> neighbors.contains(element));
+
+        scanDelay = 0; // scan as soon as possible
+        state = BusState.SCAN_PENDING;
     }
 
     private void updateEnergyConsumption() {
@@ -6,12 +6,14 @@ import li.cil.ceres.api.Serialized;
 import li.cil.oc2.api.bus.DeviceBusController;
 import li.cil.oc2.api.bus.device.Device;
 import li.cil.oc2.api.bus.device.rpc.RPCDevice;
+import li.cil.oc2.api.bus.device.rpc.RPCEventListener;
 import li.cil.oc2.api.bus.device.rpc.RPCMethod;
 import li.cil.oc2.api.bus.device.rpc.RPCParameter;
 import li.cil.oc2.common.Constants;
 import li.cil.oc2.common.bus.device.rpc.RPCDeviceList;
 import li.cil.oc2.common.bus.device.rpc.RPCMethodParameterTypeAdapters;
 import li.cil.oc2.common.serialization.serializers.*;
+import li.cil.oc2.common.vm.VMStatistics;
 import li.cil.sedna.api.device.Steppable;
 import li.cil.sedna.api.device.serial.SerialDevice;
 
@@ -20,12 +22,14 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public final class RPCDeviceBusAdapter implements Steppable {
     private static final int DEFAULT_MAX_MESSAGE_SIZE = 4 * Constants.KILOBYTE;
     private static final byte[] MESSAGE_DELIMITER = "\0".getBytes();
+    private static final int MAX_QUEUED_EVENTS = 64;
 
     public static final String ERROR_MESSAGE_TOO_LARGE = "message too large";
     public static final String ERROR_UNKNOWN_MESSAGE_TYPE = "unknown message type";
@@ -43,11 +47,21 @@ public final class RPCDeviceBusAdapter implements Steppable {
     private final Lock pauseLock = new ReentrantLock();
     private boolean isPaused;
 
+    // Events may be published from any thread, so all access to the queue is synchronized on it.
+    private final ArrayDeque<Event> queuedEvents = new ArrayDeque<>();
+    private final HashMap<UUID, RPCEventListener> eventListeners = new HashMap<>();
+
+    @Nullable private VMStatistics statistics;
+    private final AtomicBoolean hadActivity = new AtomicBoolean();
+    private long invocationStartNanos; // for latency of the current method invocation, 0 if unknown
+
     ///////////////////////////////////////////////////////////////////
 
     @Serialized private final ByteBuffer transmitBuffer; // for data written to device by VM
     @Serialized private ByteBuffer receiveBuffer; // for data written by device to VM
     @Serialized private MethodInvocation synchronizedInvocation; // pending main thread invocation
+    @Serialized private UUID[] subscriptions = new UUID[0]; // devices the VM wants events from
+    @Serialized private boolean isWaitingForEvents; // pending event pull, answered once events arrive
 
     ///////////////////////////////////////////////////////////////////
 
@@ -62,6 +76,7 @@ public final class RPCDeviceBusAdapter implements Steppable {
                 .registerTypeAdapter(byte[].class, new UnsignedByteArrayJsonSerializer())
                 .registerTypeAdapter(MethodInvocation.class, new MethodInvocationJsonDeserializer())
                 .registerTypeAdapter(Message.class, new MessageJsonDeserializer())
+                .registerTypeAdapter(Event.class, new EventJsonSerializer())
                 .registerTypeAdapter(RPCDeviceWithIdentifier.class, new RPCDeviceWithIdentifierJsonSerializer())
                 .registerTypeHierarchyAdapter(RPCMethod.class, new RPCMethodJsonSerializer())
                 .create();
@@ -69,7 +84,28 @@ public final class RPCDeviceBusAdapter implements Steppable {
 
     ///////////////////////////////////////////////////////////////////
 
+    public void setStatistics(@Nullable final VMStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns whether messages were exchanged with the VM since the last call to this method.
+     *
+     * @return {@code true} if there was message traffic; {@code false} otherwise.
+     */
+    public boolean consumeActivity() {
+        return hadActivity.getAndSet(false);
+    }
+
+    public boolean hasQueuedEvents() {
+        synchronized (queuedEvents) {
+            return !queuedEvents.isEmpty();
+        }
+    }
+
     public void suspend() {
+        removeEventListeners();
+
         for (final RPCDeviceWithIdentifier info : devices) {
             info.device.suspend();
         }
@@ -79,6 +115,14 @@ public final class RPCDeviceBusAdapter implements Steppable {
         transmitBuffer.clear();
         receiveBuffer = null;
         synchronizedInvocation = null;
+        invocationStartNanos = 0;
+
+        removeEventListeners();
+        subscriptions = new UUID[0];
+        isWaitingForEvents = false;
+        synchronized (queuedEvents) {
+            queuedEvents.clear();
+        }
     }
 
     public void pause() {
@@ -98,6 +142,8 @@ public final class RPCDeviceBusAdapter implements Steppable {
             return;
         }
 
+        removeEventListeners();
+
         devices.clear();
         devicesById.clear();
 
@@ -150,6 +196,12 @@ public final class RPCDeviceBusAdapter implements Steppable {
             devices.add(new RPCDeviceWithIdentifier(identifier, device));
             devicesById.put(identifier, device);
         });
+
+        // Subscriptions are kept for devices that went away, so that events will be
+        // delivered again should the device come back, e.g. after a chunk reload.
+        for (final UUID deviceId : subscriptions) {
+            addEventListener(deviceId);
+        }
     }
 
     public void tick() {
@@ -160,6 +212,7 @@ public final class RPCDeviceBusAdapter implements Steppable {
         if (synchronizedInvocation != null) {
             final MethodInvocation methodInvocation = synchronizedInvocation;
             processMethodInvocation(methodInvocation, true);
+            recordRPCCall();
 
             // This is also used to prevent thread from processing messages, so only
             // reset this when we're done. Otherwise we may get a race-condition when
@@ -175,6 +228,7 @@ public final class RPCDeviceBusAdapter implements Steppable {
 
         try {
             readFromDevice();
+            writeQueuedEvents();
             writeToDevice();
         } finally {
             pauseLock.unlock();
@@ -222,6 +276,26 @@ public final class RPCDeviceBusAdapter implements Steppable {
         }
     }
 
+    private void writeQueuedEvents() {
+        if (!isWaitingForEvents || receiveBuffer != null || synchronizedInvocation != null) {
+            return;
+        }
+
+        final ArrayList<Event> events;
+        synchronized (queuedEvents) {
+            if (queuedEvents.isEmpty()) {
+                return;
+            }
+
+            events = new ArrayList<>(queuedEvents);
+            queuedEvents.clear();
+        }
+
+        isWaitingForEvents = false;
+        hadActivity.set(true);
+        writeMessage(Message.MESSAGE_TYPE_EVENTS, events);
+    }
+
     private void writeToDevice() {
         if (receiveBuffer == null) {
             return;
@@ -243,6 +317,10 @@ public final class RPCDeviceBusAdapter implements Steppable {
             return;
         }
 
+        // Any new message cancels a pending event pull, the program has moved on.
+        isWaitingForEvents = false;
+        hadActivity.set(true);
+
         final InputStreamReader stream = new InputStreamReader(new ByteArrayInputStream(messageData));
         try {
             final Message message = gson.fromJson(stream, Message.class);
@@ -261,12 +339,38 @@ public final class RPCDeviceBusAdapter implements Steppable {
                 }
                 case Message.MESSAGE_TYPE_INVOKE_METHOD: {
                     if (message.data != null) {
+                        invocationStartNanos = System.nanoTime();
                         processMethodInvocation((MethodInvocation) message.data, false);
+                        if (synchronizedInvocation == null) {
+                            recordRPCCall();
+                        }
                     } else {
                         writeError("missing invocation data");
                     }
                     break;
                 }
+                case Message.MESSAGE_TYPE_SUBSCRIBE: {
+                    if (message.data != null) {
+                        subscribe((UUID) message.data);
+                    } else {
+                        writeError("missing device id");
+                    }
+                    break;
+                }
+                case Message.MESSAGE_TYPE_UNSUBSCRIBE: {
+                    if (message.data != null) {
+                        unsubscribe((UUID) message.data);
+                    } else {
+                        writeError("missing device id");
+                    }
+                    break;
+                }
+                case Message.MESSAGE_TYPE_EVENTS: {
+                    // Reply once there are events. Data written to the serial device raises
+                    // an interrupt, so the VM can sleep until then instead of polling.
+                    isWaitingForEvents = true;
+                    break;
+                }
                 default: {
                     writeError(ERROR_UNKNOWN_MESSAGE_TYPE);
                     break;
@@ -350,6 +454,14 @@ public final class RPCDeviceBusAdapter implements Steppable {
         }
     }
 
+    private void recordRPCCall() {
+        // Invocations restored from a save have no meaningful start time, skip those.
+        if (statistics != null && invocationStartNanos != 0) {
+            statistics.recordRPCCall(System.nanoTime() - invocationStartNanos);
+        }
+        invocationStartNanos = 0;
+    }
+
     @Nullable
     private Object[] getParameters(final JsonArray parameters, final RPCParameter[] parametersSpec) {
         final Object[] result = new Object[parametersSpec.length];
@@ -396,6 +508,74 @@ public final class RPCDeviceBusAdapter implements Steppable {
         }
     }
 
+    private void subscribe(final UUID deviceId) {
+        if (!devicesById.containsKey(deviceId)) {
+            writeError(ERROR_UNKNOWN_DEVICE);
+            return;
+        }
+
+        if (!Arrays.asList(subscriptions).contains(deviceId)) {
+            final UUID[] newSubscriptions = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+            newSubscriptions[subscriptions.length] = deviceId;
+            subscriptions = newSubscriptions;
+            addEventListener(deviceId);
+        }
+
+        writeMessage(Message.MESSAGE_TYPE_RESULT, null);
+    }
+
+    private void unsubscribe(final UUID deviceId) {
+        subscriptions = Arrays.stream(subscriptions)
+                .filter(id -> !id.equals(deviceId))
+                .toArray(UUID[]::new);
+        removeEventListener(deviceId);
+
+        synchronized (queuedEvents) {
+            queuedEvents.removeIf(event -> event.deviceId.equals(deviceId));
+        }
+
+        writeMessage(Message.MESSAGE_TYPE_RESULT, null);
+    }
+
+    private void addEventListener(final UUID deviceId) {
+        final RPCDeviceList device = devicesById.get(deviceId);
+        if (device == null || eventListeners.containsKey(deviceId)) {
+            return;
+        }
+
+        final RPCEventListener listener = (name, data) -> {
+            synchronized (queuedEvents) {
+                // Drop the oldest events if the VM does not keep up, there is no point in
+                // letting a program that does not pull events make us use more memory.
+                if (queuedEvents.size() >= MAX_QUEUED_EVENTS) {
+                    queuedEvents.removeFirst();
+                }
+                queuedEvents.addLast(new Event(deviceId, name, data));
+            }
+        };
+
+        eventListeners.put(deviceId, listener);
+        device.addEventListener(listener);
+    }
+
+    private void removeEventListener(final UUID deviceId) {
+        final RPCEventListener listener = eventListeners.remove(deviceId);
+        final RPCDeviceList device = devicesById.get(deviceId);
+        if (listener != null && device != null) {
+            device.removeEventListener(listener);
+        }
+    }
+
+    private void removeEventListeners() {
+        eventListeners.forEach((deviceId, listener) -> {
+            final RPCDeviceList device = devicesById.get(deviceId);
+            if (device != null) {
+                device.removeEventListener(listener);
+            }
+        });
+        eventListeners.clear();
+    }
+
     private void writeError(final String message) {
         writeMessage(Message.MESSAGE_TYPE_ERROR, message);
     }
@@ -434,15 +614,30 @@ public final class RPCDeviceBusAdapter implements Steppable {
         }
     }
 
+    public static final class Event {
+        public final UUID deviceId;
+        public final String name;
+        @Nullable public final Object data;
+
+        private Event(final UUID deviceId, final String name, @Nullable final Object data) {
+            this.deviceId = deviceId;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
     public static final class Message {
         // Device -> VM
         public static final String MESSAGE_TYPE_LIST = "list";
         public static final String MESSAGE_TYPE_METHODS = "methods";
+        public static final String MESSAGE_TYPE_EVENTS = "events";
         public static final String MESSAGE_TYPE_RESULT = "result";
         public static final String MESSAGE_TYPE_ERROR = "error";
 
         // VM -> Device
         public static final String MESSAGE_TYPE_INVOKE_METHOD = "invoke";
+        public static final String MESSAGE_TYPE_SUBSCRIBE = "subscribe";
+        public static final String MESSAGE_TYPE_UNSUBSCRIBE = "unsubscribe";
 
         public final String type;
         @Nullable public final Object data;
@@ -1,23 +1,43 @@
 package li.cil.oc2.common.bus.device.data;
 
+import com.google.common.io.ByteStreams;
 import li.cil.oc2.api.bus.device.data.Firmware;
+import li.cil.sedna.api.memory.MemoryAccessException;
 import li.cil.sedna.api.memory.MemoryMap;
 import li.cil.sedna.buildroot.Buildroot;
 import li.cil.sedna.memory.MemoryMaps;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraftforge.registries.ForgeRegistryEntry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public final class BuildrootFirmware extends ForgeRegistryEntry<Firmware> implements Firmware {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final long LINUX_IMAGE_OFFSET = 0x200000;
+
+    ///////////////////////////////////////////////////////////////////
+
     @Override
     public boolean run(final MemoryMap memory, final long startAddress) {
+        if (Images.FIRMWARE == null || Images.LINUX_IMAGE == null) {
+            return false;
+        }
+
         try {
-            MemoryMaps.store(memory, startAddress, Buildroot.getFirmware());
-            MemoryMaps.store(memory, startAddress + 0x200000, Buildroot.getLinuxImage());
+            // Duplicates, so concurrently booting machines each get their own position.
+            MemoryMaps.store(memory, startAddress, Images.FIRMWARE.duplicate());
+            MemoryMaps.store(memory, startAddress + LINUX_IMAGE_OFFSET, Images.LINUX_IMAGE.duplicate());
             return true;
-        } catch (final IOException e) {
+        } catch (final MemoryAccessException e) {
             return false;
         }
     }
@@ -26,4 +46,41 @@ public final class BuildrootFirmware extends ForgeRegistryEntry<Firmware> implem
     public ITextComponent getDisplayName() {
         return new StringTextComponent("Linux");
     }
+
+    ///////////////////////////////////////////////////////////////////
+
+    /**
+     * Decompressed images, shared by all machines. Loaded on first use, so we only pay
+     * for decompression once per process, instead of once per boot.
+     */
+    private static final class Images {
+        @Nullable public static final ByteBuffer FIRMWARE;
+        @Nullable public static final ByteBuffer LINUX_IMAGE;
+
+        static {
+            ByteBuffer firmware = null, linuxImage = null;
+            try {
+                firmware = load(Buildroot.getFirmware());
+                linuxImage = load(Buildroot.getLinuxImage());
+            } catch (final IOException e) {
+                LOGGER.error(e);
+            }
+            FIRMWARE = firmware;
+            LINUX_IMAGE = linuxImage;
+        }
+
+        private static ByteBuffer load(final InputStream stream) throws IOException {
+            final byte[] data;
+            try {
+                data = ByteStreams.toByteArray(stream);
+            } finally {
+                stream.close();
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+            buffer.put(data);
+            buffer.flip();
+            return buffer.asReadOnlyBuffer();
+        }
+    }
 }
@@ -5,8 +5,8 @@ import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import it.unimi.dsi.fastutil.objects.Object2IntArrayMap;
 import li.cil.oc2.common.vm.fs.LayeredFileSystem;
+import li.cil.oc2.common.vm.fs.ZipFileSystem;
 import li.cil.sedna.fs.FileSystem;
-import li.cil.sedna.fs.ZipStreamFileSystem;
 import net.minecraft.profiler.IProfiler;
 import net.minecraft.resources.IFutureReloadListener;
 import net.minecraft.resources.IResource;
@@ -17,11 +17,15 @@ import net.minecraftforge.event.AddReloadListenerEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
@@ -40,7 +44,7 @@ public final class FileSystems {
     }
 
     public static void reset() {
-        LAYERED_FILE_SYSTEM.clear();
+        closeLayers(LAYERED_FILE_SYSTEM.clear());
     }
 
     ///////////////////////////////////////////////////////////////////
@@ -49,15 +53,16 @@ public final class FileSystems {
         event.addListener(ReloadListener.INSTANCE);
     }
 
-    private static void reload(final IResourceManager resourceManager) {
-        reset();
-
+    private static CompletableFuture<Void> reload(final IResourceManager resourceManager, final Executor executor) {
+        // Keep the current layers until all new ones have been loaded, so that running
+        // machines never see an empty file system while the reload is in progress.
         LOGGER.info("Searching for datapack filesystems...");
         final Collection<ResourceLocation> fileSystemDescriptorLocations = resourceManager
                 .listResources("file_systems", s -> s.endsWith(".json"));
 
-        final ArrayList<ZipStreamFileSystem> fileSystems = new ArrayList<>();
-        final Object2IntArrayMap<ZipStreamFileSystem> fileSystemOrder = new Object2IntArrayMap<>();
+        final ArrayList<FileSystem> fileSystems = new ArrayList<>();
+        final Object2IntArrayMap<FileSystem> fileSystemOrder = new Object2IntArrayMap<>();
+        final ArrayList<CompletableFuture<Void>> layerLoaders = new ArrayList<>();
 
         for (final ResourceLocation fileSystemDescriptorLocation : fileSystemDescriptorLocations) {
             LOGGER.info("Found [{}]", fileSystemDescriptorLocation);
@@ -69,25 +74,26 @@ public final class FileSystems {
                     case "layer": {
                         final ResourceLocation location = new ResourceLocation(json.getAsJsonPrimitive("location").getAsString());
 
-                        final ZipStreamFileSystem fileSystem;
-                        try (final InputStream stream = resourceManager.getResource(location).getInputStream()) {
-                            fileSystem = new ZipStreamFileSystem(stream);
-                        }
-
-                        final long fileCount = fileSystem.statfs().fileCount;
-                        if (fileCount > 0) {
-                            LOGGER.info("  Adding layer with [{}] file(s).", fileCount);
-                            fileSystems.add(fileSystem);
-                        } else {
-                            LOGGER.info("  Skipping empty layer.");
-                        }
-
+                        final int order;
                         if (json.has("order")) {
-                            final JsonPrimitive order = json.getAsJsonPrimitive("order");
-                            fileSystemOrder.put(fileSystem, order.getAsInt());
+                            final JsonPrimitive orderJson = json.getAsJsonPrimitive("order");
+                            order = orderJson.getAsInt();
                         } else {
-                            fileSystemOrder.put(fileSystem, 0);
+                            order = 0;
                         }
+
+                        // Layers are independent of each other, so load them in parallel.
+                        layerLoaders.add(CompletableFuture.runAsync(() -> {
+                            final FileSystem fileSystem = loadLayer(resourceManager, location);
+                            if (fileSystem == null) {
+                                return;
+                            }
+
+                            synchronized (fileSystems) {
+                                fileSystems.add(fileSystem);
+                                fileSystemOrder.put(fileSystem, order);
+                            }
+                        }, executor));
                         break;
                     }
                     case "block": {
@@ -104,8 +110,47 @@ public final class FileSystems {
             }
         }
 
-        fileSystems.sort(Comparator.comparingInt(fileSystemOrder::getInt));
-        fileSystems.forEach(LAYERED_FILE_SYSTEM::addLayer);
+        // Don't block waiting for the loaders, they run on the same executor as we do.
+        return CompletableFuture.allOf(layerLoaders.toArray(new CompletableFuture[0])).thenRun(() -> {
+            fileSystems.sort(Comparator.comparingInt(fileSystemOrder::getInt));
+
+            // Replaced layers stay open until running machines have closed their open files.
+            closeLayers(LAYERED_FILE_SYSTEM.setLayers(fileSystems));
+        });
+    }
+
+    private static void closeLayers(final List<FileSystem> layers) {
+        for (final FileSystem layer : layers) {
+            if (layer instanceof Closeable) {
+                try {
+                    ((Closeable) layer).close();
+                } catch (final IOException e) {
+                    LOGGER.error(e);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static FileSystem loadLayer(final IResourceManager resourceManager, final ResourceLocation location) {
+        try {
+            final ZipFileSystem fileSystem;
+            try (final InputStream stream = resourceManager.getResource(location).getInputStream()) {
+                fileSystem = ZipFileSystem.fromStream(stream);
+            }
+
+            final long fileCount = fileSystem.statfs().fileCount;
+            if (fileCount > 0) {
+                LOGGER.info("Adding layer [{}] with [{}] file(s).", location, fileCount);
+                return fileSystem;
+            } else {
+                LOGGER.info("Skipping empty layer [{}].", location);
+                return null;
+            }
+        } catch (final Throwable e) {
+            LOGGER.error(e);
+            return null;
+        }
     }
 
     ///////////////////////////////////////////////////////////////////
@@ -116,7 +161,8 @@ public final class FileSystems {
         @Override
         public CompletableFuture<Void> reload(final IFutureReloadListener.IStage stage, final IResourceManager resourceManager, final IProfiler preparationsProfiler, final IProfiler reloadProfiler, final Executor backgroundExecutor, final Executor gameExecutor) {
             return CompletableFuture
-                    .runAsync(() -> FileSystems.reload(resourceManager), backgroundExecutor)
+                    .supplyAsync(() -> FileSystems.reload(resourceManager, backgroundExecutor), backgroundExecutor)
+                    .thenCompose(layersLoaded -> layersLoaded)
                     .thenCompose(stage::wait);
         }
     }
@@ -166,6 +166,10 @@ public abstract class AbstractBlockDeviceVMDevice<TBlock extends BlockDevice, TI
     protected void handleDataAccess() {
     }
 
+    protected void setBlockDevice(final TBlock block) throws IOException {
+        device.setBlock(createListenableBlockDevice(block));
+    }
+
     ///////////////////////////////////////////////////////////////
 
     private boolean allocateDevice(final VMContext context) {
@@ -174,9 +178,7 @@ public abstract class AbstractBlockDeviceVMDevice<TBlock extends BlockDevice, TI
         }
 
         try {
-            final ListenableBlockDevice listenableData = new ListenableBlockDevice(createBlockDevice());
-            listenableData.onAccess.add(this::handleDataAccess);
-            device = new VirtIOBlockDevice(context.getMemoryMap(), listenableData);
+            device = new VirtIOBlockDevice(context.getMemoryMap(), createListenableBlockDevice(createBlockDevice()));
         } catch (final IOException e) {
             LOGGER.error(e);
             return false;
@@ -185,15 +187,44 @@ public abstract class AbstractBlockDeviceVMDevice<TBlock extends BlockDevice, TI
         return true;
     }
 
+    private ListenableBlockDevice createListenableBlockDevice(final TBlock block) {
+        final ListenableBlockDevice listenableData = new ListenableBlockDevice(block, this::handleDataWrite);
+        listenableData.onAccess.add(this::handleDataAccess);
+        return listenableData;
+    }
+
+    private void handleDataWrite(final long offset, final long length) {
+        // Called from the runner thread, so read the handle only once.
+        final UUID handle = blobHandle;
+        if (handle != null) {
+            BlobStorage.markDirty(handle, offset, length);
+        }
+    }
+
     ///////////////////////////////////////////////////////////////
 
+    /**
+     * Wraps a {@link BlockDevice} to get notified when it is accessed.
+     * <p>
+     * Input streams of the wrapped device are passed through as-is, output streams are only wrapped
+     * to forward bulk writes directly, so transfers between the underlying buffer and guest memory
+     * are not routed through per-byte wrapper logic. Access is signalled once per request, i.e.
+     * whenever a stream is obtained for a read or write. Writes are additionally signalled once
+     * the output stream of a request is closed, i.e. after all of its data has been written, with
+     * the written region, so modified parts of blobs can be marked for write-back. Signalling before writing would allow a
+     * concurrent flush to clear the dirty flag before the data it is supposed to cover has been
+     * written.
+     */
     private static final class ListenableBlockDevice implements BlockDevice {
         private final BlockDevice inner;
 
+        private final WriteListener onWrite;
+
         public final Event onAccess = new Event();
 
-        private ListenableBlockDevice(final BlockDevice inner) {
+        private ListenableBlockDevice(final BlockDevice inner, final WriteListener onWrite) {
             this.inner = inner;
+            this.onWrite = onWrite;
         }
 
         @Override
@@ -208,16 +239,14 @@ public abstract class AbstractBlockDeviceVMDevice<TBlock extends BlockDevice, TI
 
         @Override
         public InputStream getInputStream(final long offset) {
-            final ListenableInputStream stream = new ListenableInputStream(inner.getInputStream(offset));
-            stream.onAccess.add(onAccess);
-            return stream;
+            onAccess.run();
+            return inner.getInputStream(offset);
         }
 
         @Override
         public OutputStream getOutputStream(final long offset) {
-            final ListenableOutputStream stream = new ListenableOutputStream(inner.getOutputStream(offset));
-            stream.onAccess.add(onAccess);
-            return stream;
+            onAccess.run();
+            return new WriteListeningOutputStream(inner.getOutputStream(offset), offset, onWrite);
         }
 
         @Override
@@ -231,95 +260,33 @@ public abstract class AbstractBlockDeviceVMDevice<TBlock extends BlockDevice, TI
         }
     }
 
-    private static final class ListenableInputStream extends InputStream {
-        private final InputStream inner;
-
-        public final Event onAccess = new Event();
-
-        private ListenableInputStream(final InputStream inner) {
-            this.inner = inner;
-        }
-
-        @Override
-        public int read() throws IOException {
-            onAccess();
-            return inner.read();
-        }
-
-        @Override
-        public int read(final byte[] b) throws IOException {
-            onAccess();
-            return inner.read(b);
-        }
-
-        @Override
-        public int read(final byte[] b, final int off, final int len) throws IOException {
-            onAccess();
-            return inner.read(b, off, len);
-        }
-
-        @Override
-        public long skip(final long n) throws IOException {
-            onAccess();
-            return inner.skip(n);
-        }
-
-        @Override
-        public int available() throws IOException {
-            return inner.available();
-        }
-
-        @Override
-        public void close() throws IOException {
-            inner.close();
-        }
-
-        @Override
-        public synchronized void mark(final int limit) {
-            inner.mark(limit);
-        }
-
-        @Override
-        public synchronized void reset() throws IOException {
-            onAccess();
-            inner.reset();
-        }
-
-        @Override
-        public boolean markSupported() {
-            return inner.markSupported();
-        }
-
-        private void onAccess() {
-            onAccess.run();
-        }
+    @FunctionalInterface
+    private interface WriteListener {
+        void handleWrite(long offset, long length);
     }
 
-    private static final class ListenableOutputStream extends OutputStream {
+    private static final class WriteListeningOutputStream extends OutputStream {
         private final OutputStream inner;
+        private final long offset;
+        private final WriteListener onWrite;
+        private long length;
 
-        public final Event onAccess = new Event();
-
-        private ListenableOutputStream(final OutputStream inner) {
+        private WriteListeningOutputStream(final OutputStream inner, final long offset, final WriteListener onWrite) {
             this.inner = inner;
+            this.offset = offset;
+            this.onWrite = onWrite;
         }
 
         @Override
         public void write(final int b) throws IOException {
-            onAccess();
-            inner.write(b);
-        }
-
-        @Override
-        public void write(final byte[] b) throws IOException {
-            onAccess();
             inner.write(b);
+            length++;
         }
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
-            onAccess();
             inner.write(b, off, len);
+            length += len;
         }
 
         @Override
@@ -330,10 +297,9 @@ public abstract class AbstractBlockDeviceVMDevice<TBlock extends BlockDevice, TI
         @Override
         public void close() throws IOException {
             inner.close();
-        }
-
-        private void onAccess() {
-            onAccess.run();
+            if (length > 0) {
+                onWrite.handleWrite(offset, length);
+            }
         }
     }
 }
@@ -11,6 +11,8 @@ import li.cil.oc2.api.bus.device.vm.event.VMInitializingEvent;
 import li.cil.oc2.common.Constants;
 import li.cil.oc2.common.bus.device.util.IdentityProxy;
 import li.cil.oc2.common.bus.device.util.OptionalAddress;
+import li.cil.oc2.common.serialization.BlobStorage;
+import li.cil.oc2.common.util.NBTTagIds;
 import li.cil.sedna.api.memory.MemoryAccessException;
 import li.cil.sedna.api.memory.MemoryMap;
 import li.cil.sedna.device.flash.FlashMemoryDevice;
@@ -19,25 +21,33 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.text.TranslationTextComponent;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.UUID;
 
 @SuppressWarnings("UnstableApiUsage")
 public final class ByteBufferFlashMemoryVMDevice extends IdentityProxy<ItemStack> implements VMDevice, ItemDevice, FirmwareLoader {
     public static final String DATA_TAG_NAME = "data";
+    private static final String BLOB_HANDLE_TAG_NAME = "blob";
 
     ///////////////////////////////////////////////////////////////
 
     private final int size;
     private MemoryMap memoryMap;
-    private ByteBuffer data;
     private FlashMemoryDevice device;
 
     ///////////////////////////////////////////////////////////////
 
     // Online persisted data.
-    private CompoundNBT deviceTag;
     private final OptionalAddress address = new OptionalAddress();
 
+    // Offline persisted data.
+    @Nullable private UUID blobHandle;
+
+    // Contents from before flash memory was stored in blobs, copied into the blob on mount.
+    @Nullable private byte[] legacyData;
+
     ///////////////////////////////////////////////////////////////
 
     public ByteBufferFlashMemoryVMDevice(final ItemStack identity, final int size) {
@@ -57,7 +67,7 @@ public final class ByteBufferFlashMemoryVMDevice extends IdentityProxy<ItemStack
             return VMDeviceLoadResult.fail();
         }
 
-        loadPersistedState();
+        loadLegacyData();
 
         memoryMap = context.getMemoryMap();
 
@@ -69,14 +79,16 @@ public final class ByteBufferFlashMemoryVMDevice extends IdentityProxy<ItemStack
     @Override
     public void unmount() {
         suspend();
-        deviceTag = null;
         address.clear();
     }
 
     @Override
     public void suspend() {
+        if (blobHandle != null) {
+            BlobStorage.close(blobHandle);
+        }
+
         memoryMap = null;
-        data = null;
         device = null;
     }
 
@@ -85,12 +97,33 @@ public final class ByteBufferFlashMemoryVMDevice extends IdentityProxy<ItemStack
         copyDataToMemory(event.getProgramStartAddress());
     }
 
+    @Override
+    public void exportToItemStack(final CompoundNBT nbt) {
+        if (blobHandle != null) {
+            nbt.putUUID(BLOB_HANDLE_TAG_NAME, blobHandle);
+        }
+    }
+
+    @Override
+    public void importFromItemStack(final CompoundNBT nbt) {
+        if (nbt.hasUUID(BLOB_HANDLE_TAG_NAME)) {
+            blobHandle = nbt.getUUID(BLOB_HANDLE_TAG_NAME);
+        }
+    }
+
     @Override
     public CompoundNBT serializeNBT() {
         final CompoundNBT tag = new CompoundNBT();
 
-        if (device != null) {
-            tag.putByteArray(DATA_TAG_NAME, device.getData().array());
+        if (blobHandle != null) {
+            tag.putUUID(BLOB_HANDLE_TAG_NAME, blobHandle);
+
+            // We don't track individual writes to flash, so have it written back whenever
+            // state is persisted, to keep it in line with the serialized machine state.
+            BlobStorage.markDirty(blobHandle);
+        }
+        if (legacyData != null) {
+            tag.putByteArray(DATA_TAG_NAME, legacyData);
         }
 
         return tag;
@@ -98,10 +131,11 @@ public final class ByteBufferFlashMemoryVMDevice extends IdentityProxy<ItemStack
 
     @Override
     public void deserializeNBT(final CompoundNBT tag) {
-        final byte[] data = tag.getByteArray(DATA_TAG_NAME);
-        final ByteBuffer bufferData = device.getData();
-        bufferData.clear();
-        bufferData.put(data, 0, Math.min(bufferData.limit(), data.length));
+        if (tag.hasUUID(BLOB_HANDLE_TAG_NAME)) {
+            blobHandle = tag.getUUID(BLOB_HANDLE_TAG_NAME);
+        } else if (tag.contains(DATA_TAG_NAME, NBTTagIds.TAG_BYTE_ARRAY)) {
+            legacyData = tag.getByteArray(DATA_TAG_NAME);
+        }
     }
 
     ///////////////////////////////////////////////////////////////
@@ -111,18 +145,24 @@ public final class ByteBufferFlashMemoryVMDevice extends IdentityProxy<ItemStack
             return false;
         }
 
-        data = ByteBuffer.allocate(size);
-        device = new FlashMemoryDevice(data);
+        try {
+            blobHandle = BlobStorage.validateHandle(blobHandle);
+            device = new FlashMemoryDevice(BlobStorage.map(blobHandle, size));
+        } catch (final IOException e) {
+            return false;
+        }
 
         return true;
     }
 
-    private void loadPersistedState() {
-        if (deviceTag != null) {
+    private void loadLegacyData() {
+        if (legacyData != null) {
+            final ByteBuffer data = device.getData();
             data.clear();
+            data.put(legacyData, 0, Math.min(legacyData.length, data.capacity()));
+            legacyData = null;
 
-            final byte[] persistedData = deviceTag.getByteArray(DATA_TAG_NAME);
-            data.put(persistedData, 0, Math.min(persistedData.length, data.capacity()));
+            BlobStorage.markDirty(blobHandle);
         }
     }
 
@@ -5,10 +5,9 @@ import li.cil.oc2.api.bus.device.object.Callback;
 import li.cil.oc2.api.bus.device.object.DocumentedDevice;
 import li.cil.oc2.api.bus.device.object.Parameter;
 import li.cil.oc2.api.capabilities.TerminalUserProvider;
+import li.cil.oc2.common.Constants;
 import li.cil.oc2.common.network.Network;
-import li.cil.oc2.common.network.message.ExportedFileMessage;
-import li.cil.oc2.common.network.message.RequestImportedFileMessage;
-import li.cil.oc2.common.network.message.ServerCanceledImportFileMessage;
+import li.cil.oc2.common.network.message.*;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.item.ItemStack;
@@ -16,17 +15,26 @@ import net.minecraft.util.StringUtils;
 import net.minecraftforge.fml.network.PacketDistributor;
 
 import javax.annotation.Nullable;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.*;
 
 public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice implements DocumentedDevice {
-    public static final int MAX_TRANSFERRED_FILE_SIZE = 512 * 1024;
+    public static final int MAX_TRANSFERRED_FILE_SIZE = 16 * Constants.MEGABYTE;
+
+    // Imported files are sent by the client in chunks. The client may only have this many
+    // chunks in flight, and gets to send more as the VM consumes them. This way we never
+    // buffer more than a window worth of data per import on the server.
+    public static final int IMPORT_CHUNK_SIZE = 16 * Constants.KILOBYTE;
+    public static final int IMPORT_WINDOW_SIZE = 16;
+
+    // Exported files are sent to clients in chunks, to stay below the packet size limit.
+    public static final int EXPORT_CHUNK_SIZE = 256 * Constants.KILOBYTE;
+
+    // Default and maximum amount of data returned by a single call to readImportFile().
+    private static final int DEFAULT_READ_LENGTH = Constants.KILOBYTE;
+    private static final int MAX_READ_LENGTH = 64 * Constants.KILOBYTE;
 
     private static final String BEGIN_EXPORT_FILE = "beginExportFile";
     private static final String WRITE_EXPORT_FILE = "writeExportFile";
@@ -37,6 +45,7 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
     private static final String RESET = "reset";
     private static final String NAME = "name";
     private static final String DATA = "data";
+    private static final String MAX_LENGTH = "maxLength";
 
     ///////////////////////////////////////////////////////////////////
 
@@ -60,12 +69,16 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
     private static final class ImportedFile {
         public final String name;
         public final int size;
-        public final ByteArrayInputStream data;
+        public final ServerPlayerEntity source;
+        public final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+        public int chunkOffset; // Offset into first chunk in queue.
+        public int received;
+        public int read;
 
-        private ImportedFile(final String name, final byte[] data) {
+        private ImportedFile(final String name, final int size, final ServerPlayerEntity source) {
             this.name = name;
-            this.size = data.length;
-            this.data = new ByteArrayInputStream(data);
+            this.size = size;
+            this.source = source;
         }
     }
 
@@ -82,6 +95,7 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
     private static final class ImportFileRequest {
         public final Set<ServerPlayerEntity> PendingPlayers = Collections.newSetFromMap(new WeakHashMap<>());
         public final WeakReference<FileImportExportCardItemDevice> Device;
+        @Nullable public ServerPlayerEntity Source;
 
         private ImportFileRequest(final FileImportExportCardItemDevice device) {
             Device = new WeakReference<>(device);
@@ -92,6 +106,7 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
 
     private static final Int2ObjectArrayMap<ImportFileRequest> importingDevices = new Int2ObjectArrayMap<>();
     private static int nextImportId = 1;
+    private static int nextExportId = 1;
 
     private final TerminalUserProvider userProvider;
     private State state;
@@ -108,22 +123,66 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
 
     ///////////////////////////////////////////////////////////////////
 
-    public static void setImportedFile(final int id, final String name, final byte[] data) {
+    public static void setImportedFile(final ServerPlayerEntity player, final int id, final String name, final int size) {
         synchronized (importingDevices) {
-            final ImportFileRequest request = importingDevices.remove(id);
-            if (request != null) {
-                final FileImportExportCardItemDevice device = request.Device.get();
-                if (device != null) {
-                    device.importedFile = new ImportedFile(name, data);
-                    final ServerCanceledImportFileMessage message = new ServerCanceledImportFileMessage(id);
-                    for (final ServerPlayerEntity player : request.PendingPlayers) {
-                        Network.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), message);
-                    }
-                }
+            final ImportFileRequest request = importingDevices.get(id);
+            if (request == null || request.Source != null || !request.PendingPlayers.contains(player)) {
+                return;
             }
+
+            final FileImportExportCardItemDevice device = request.Device.get();
+            if (device == null) {
+                importingDevices.remove(id);
+                return;
+            }
+
+            if (size < 0 || size > MAX_TRANSFERRED_FILE_SIZE) {
+                cancelImport(player, id);
+                return;
+            }
+
+            // Keep the request around until the transfer completes, so we can route incoming
+            // data to the device. The player sending the file is the only one we wait for now.
+            request.Source = player;
+            request.PendingPlayers.remove(player);
+            final ServerCanceledImportFileMessage message = new ServerCanceledImportFileMessage(id);
+            for (final ServerPlayerEntity pendingPlayer : request.PendingPlayers) {
+                Network.INSTANCE.send(PacketDistributor.PLAYER.with(() -> pendingPlayer), message);
+            }
+            request.PendingPlayers.clear();
+            request.PendingPlayers.add(player);
+
+            device.importedFile = new ImportedFile(name, size, player);
         }
     }
 
+    public static void addImportedFileData(final ServerPlayerEntity player, final int id, final byte[] data) {
+        final FileImportExportCardItemDevice device;
+        synchronized (importingDevices) {
+            final ImportFileRequest request = importingDevices.get(id);
+            if (request == null || request.Source != player) {
+                return;
+            }
+
+            device = request.Device.get();
+        }
+
+        if (device == null || device.importedFile == null) {
+            return;
+        }
+
+        final ImportedFile file = device.importedFile;
+        if (data.length > IMPORT_CHUNK_SIZE || file.received + data.length > file.size ||
+            file.chunks.size() >= IMPORT_WINDOW_SIZE) {
+            // Client does not adhere to the protocol, stop listening to it.
+            cancelImport(player, id);
+            return;
+        }
+
+        file.chunks.add(data);
+        file.received += data.length;
+    }
+
     public static void cancelImport(final ServerPlayerEntity player, final int id) {
         synchronized (importingDevices) {
             final ImportFileRequest request = importingDevices.get(id);
@@ -134,6 +193,10 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
                     final FileImportExportCardItemDevice device = request.Device.get();
                     if (device != null) {
                         device.state = State.IMPORT_CANCELED;
+                        device.importedFile = null;
+                    }
+                    if (request.Source != null) {
+                        Network.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), new ServerCanceledImportFileMessage(id));
                     }
                 }
             }
@@ -186,10 +249,10 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
         }
 
         try {
+            final byte[] data = exportedFile.data.toByteArray();
             for (final PlayerEntity player : userProvider.getTerminalUsers()) {
                 if (player instanceof ServerPlayerEntity) {
-                    final ExportedFileMessage message = new ExportedFileMessage(exportedFile.name, exportedFile.data.toByteArray());
-                    Network.INSTANCE.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) player), message);
+                    sendExportedFile((ServerPlayerEntity) player, exportedFile.name, data);
                 }
             }
         } finally {
@@ -217,7 +280,9 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
         state = State.IMPORT_REQUESTED;
         importingId = nextImportId++;
         synchronized (importingDevices) {
-            importingDevices.put(importingId, new ImportFileRequest(this));
+            final ImportFileRequest request = new ImportFileRequest(this);
+            request.PendingPlayers.addAll(players);
+            importingDevices.put(importingId, request);
         }
 
         for (final ServerPlayerEntity player : players) {
@@ -245,7 +310,7 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
 
     @Nullable
     @Callback(name = READ_IMPORT_FILE)
-    public byte[] readImportFile() throws IOException {
+    public byte[] readImportFile(@Nullable @Parameter(MAX_LENGTH) final Integer maxLength) {
         if (state == State.IMPORT_CANCELED) {
             reset();
             throw new IllegalStateException("import was canceled");
@@ -259,23 +324,44 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
             return new byte[0];
         }
 
-        final byte[] buffer = new byte[1024];
-        final int count = importedFile.data.read(buffer);
-        if (count <= 0) {
+        if (importedFile.read >= importedFile.size) {
             reset();
             return null;
         }
-        if (count < buffer.length) {
-            final byte[] data = new byte[count];
-            System.arraycopy(buffer, 0, data, 0, count);
-            return data;
-        } else {
-            return buffer;
+
+        final int length = maxLength != null ? Math.max(1, Math.min(maxLength, MAX_READ_LENGTH)) : DEFAULT_READ_LENGTH;
+        final ByteArrayOutputStream data = new ByteArrayOutputStream(Math.min(length, importedFile.received - importedFile.read));
+        int consumedChunks = 0;
+        while (data.size() < length && !importedFile.chunks.isEmpty()) {
+            final byte[] chunk = importedFile.chunks.peek();
+            final int count = Math.min(length - data.size(), chunk.length - importedFile.chunkOffset);
+            data.write(chunk, importedFile.chunkOffset, count);
+            importedFile.chunkOffset += count;
+            if (importedFile.chunkOffset >= chunk.length) {
+                importedFile.chunks.poll();
+                importedFile.chunkOffset = 0;
+                consumedChunks++;
+            }
+        }
+
+        importedFile.read += data.size();
+
+        // Grant the client permission to send as many chunks as we just freed up.
+        if (consumedChunks > 0 && importedFile.received < importedFile.size) {
+            final ServerPlayerEntity source = importedFile.source;
+            Network.INSTANCE.send(PacketDistributor.PLAYER.with(() -> source), new RequestImportedFileDataMessage(importingId, consumedChunks));
         }
+
+        return data.toByteArray();
     }
 
     @Callback(name = RESET)
     public void reset() {
+        if (importedFile != null && importedFile.received < importedFile.size) {
+            final ServerPlayerEntity source = importedFile.source;
+            Network.INSTANCE.send(PacketDistributor.PLAYER.with(() -> source), new ServerCanceledImportFileMessage(importingId));
+        }
+
         state = State.IDLE;
         exportedFile = null;
         importedFile = null;
@@ -315,8 +401,23 @@ public final class FileImportExportCardItemDevice extends AbstractItemRPCDevice
                              "available.\n" +
                              "This method may error if the device is not currently importing or the " +
                              "import was interrupted.")
+                .parameterDescription(MAX_LENGTH, "optional, the maximum number of bytes to read. " +
+                                                  "Defaults to " + DEFAULT_READ_LENGTH + ", capped at " +
+                                                  MAX_READ_LENGTH + ".")
                 .returnValueDescription("data from the file being imported.");
         visitor.visitCallback(RESET)
                 .description("Resets the device and cancels any currently running export or import operation.");
     }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static void sendExportedFile(final ServerPlayerEntity player, final String name, final byte[] data) {
+        final int id = nextExportId++;
+        final PacketDistributor.PacketTarget target = PacketDistributor.PLAYER.with(() -> player);
+        Network.INSTANCE.send(target, new ExportedFileMessage(id, name, data.length));
+        for (int offset = 0; offset < data.length; offset += EXPORT_CHUNK_SIZE) {
+            final byte[] chunk = Arrays.copyOfRange(data, offset, Math.min(data.length, offset + EXPORT_CHUNK_SIZE));
+            Network.INSTANCE.send(target, new ExportedFileDataMessage(id, chunk));
+        }
+    }
 }
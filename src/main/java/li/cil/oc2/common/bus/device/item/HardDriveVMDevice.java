@@ -9,7 +9,6 @@ import net.minecraft.item.ItemStack;
 
 import java.io.IOException;
 import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -34,8 +33,7 @@ public class HardDriveVMDevice extends AbstractBlockDeviceVMDevice<ByteBufferBlo
     @Override
     protected ByteBufferBlockDevice createBlockDevice() throws IOException {
         blobHandle = BlobStorage.validateHandle(blobHandle);
-        final FileChannel channel = BlobStorage.getOrOpen(blobHandle);
-        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        final MappedByteBuffer buffer = BlobStorage.map(blobHandle, size);
         return ByteBufferBlockDevice.wrap(buffer, readonly);
     }
 
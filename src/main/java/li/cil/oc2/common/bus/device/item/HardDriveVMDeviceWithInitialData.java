@@ -3,6 +3,7 @@ package li.cil.oc2.common.bus.device.item;
 import com.google.common.eventbus.Subscribe;
 import com.google.common.io.ByteStreams;
 import li.cil.oc2.api.bus.device.vm.event.VMResumingRunningEvent;
+import li.cil.oc2.common.serialization.BlobStorage;
 import li.cil.oc2.common.util.Location;
 import li.cil.sedna.api.device.BlockDevice;
 import li.cil.sedna.device.block.ByteBufferBlockDevice;
@@ -14,6 +15,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -59,12 +61,14 @@ public final class HardDriveVMDeviceWithInitialData extends HardDriveVMDevice {
         final boolean isInitializing = blobHandle == null;
         final ByteBufferBlockDevice device = super.createBlockDevice();
         if (isInitializing) {
+            final UUID handle = blobHandle;
             copyJob = CompletableFuture.runAsync(() -> {
                 try {
                     try (final InputStream input = base.getInputStream(0);
                          final OutputStream output = device.getOutputStream(0)) {
                         ByteStreams.copy(input, output);
                     }
+                    BlobStorage.markDirty(handle);
                 } catch (final IOException e) {
                     LOGGER.error(e);
                 }
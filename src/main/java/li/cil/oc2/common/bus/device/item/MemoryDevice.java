@@ -18,7 +18,6 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
 import java.util.UUID;
 
 public final class MemoryDevice extends IdentityProxy<ItemStack> implements VMDevice, ItemDevice {
@@ -97,6 +96,12 @@ public final class MemoryDevice extends IdentityProxy<ItemStack> implements VMDe
 
         if (blobHandle != null) {
             tag.putUUID(BLOB_HANDLE_TAG_NAME, blobHandle);
+
+            // We don't track individual writes to memory, that would slow down every guest
+            // memory access. So have it written back whenever state is persisted, to keep it
+            // in line with the serialized machine state. The write-back is rate limited by the
+            // blob flusher, and only pages actually modified get written.
+            BlobStorage.markDirty(blobHandle);
         }
         if (address.isPresent()) {
             tag.putLong(ADDRESS_TAG_NAME, address.getAsLong());
@@ -124,8 +129,7 @@ public final class MemoryDevice extends IdentityProxy<ItemStack> implements VMDe
 
         try {
             blobHandle = BlobStorage.validateHandle(blobHandle);
-            final FileChannel channel = BlobStorage.getOrOpen(blobHandle);
-            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            final MappedByteBuffer buffer = BlobStorage.map(blobHandle, size);
             device = new ByteBufferMemory(buffer);
         } catch (final IOException e) {
             return false;
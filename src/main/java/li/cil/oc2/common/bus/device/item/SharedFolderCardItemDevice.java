@@ -0,0 +1,129 @@
+package li.cil.oc2.common.bus.device.item;
+
+import li.cil.oc2.api.bus.device.ItemDevice;
+import li.cil.oc2.api.bus.device.vm.VMDevice;
+import li.cil.oc2.api.bus.device.vm.VMDeviceLoadResult;
+import li.cil.oc2.api.bus.device.vm.context.VMContext;
+import li.cil.oc2.common.bus.device.util.IdentityProxy;
+import li.cil.oc2.common.bus.device.util.OptionalAddress;
+import li.cil.oc2.common.bus.device.util.OptionalInterrupt;
+import li.cil.oc2.common.serialization.NBTSerialization;
+import li.cil.oc2.common.util.NBTTagIds;
+import li.cil.oc2.common.vm.fs.CachingFileSystem;
+import li.cil.sedna.device.virtio.VirtIOFileSystemDevice;
+import li.cil.sedna.fs.HostFileSystem;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Exposes a directory on the server to the VM as a 9p file system.
+ * <p>
+ * The directory is configured by server administrators, see {@link li.cil.oc2.common.Config#sharedFolderPath}.
+ */
+public final class SharedFolderCardItemDevice extends IdentityProxy<ItemStack> implements VMDevice, ItemDevice {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final String MOUNT_TAG = "shared";
+
+    private static final String DEVICE_TAG_NAME = "device";
+    private static final String ADDRESS_TAG_NAME = "address";
+    private static final String INTERRUPT_TAG_NAME = "interrupt";
+
+    ///////////////////////////////////////////////////////////////
+
+    private final File root;
+    private VirtIOFileSystemDevice device;
+
+    private final OptionalAddress address = new OptionalAddress();
+    private final OptionalInterrupt interrupt = new OptionalInterrupt();
+    private CompoundNBT deviceTag;
+
+    ///////////////////////////////////////////////////////////////
+
+    public SharedFolderCardItemDevice(final ItemStack identity, final File root) {
+        super(identity);
+        this.root = root;
+    }
+
+    ///////////////////////////////////////////////////////////////
+
+    @Override
+    public VMDeviceLoadResult mount(final VMContext context) {
+        try {
+            Files.createDirectories(root.toPath());
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            return VMDeviceLoadResult.fail();
+        }
+
+        device = new VirtIOFileSystemDevice(context.getMemoryMap(), MOUNT_TAG, new CachingFileSystem(new HostFileSystem(root)));
+
+        if (!address.claim(context, device)) {
+            return VMDeviceLoadResult.fail();
+        }
+
+        if (interrupt.claim(context)) {
+            device.getInterrupt().set(interrupt.getAsInt(), context.getInterruptController());
+        } else {
+            return VMDeviceLoadResult.fail();
+        }
+
+        if (deviceTag != null) {
+            NBTSerialization.deserialize(deviceTag, device);
+        }
+
+        return VMDeviceLoadResult.success();
+    }
+
+    @Override
+    public void unmount() {
+        suspend();
+        deviceTag = null;
+        address.clear();
+        interrupt.clear();
+    }
+
+    @Override
+    public void suspend() {
+        device = null;
+    }
+
+    @Override
+    public CompoundNBT serializeNBT() {
+        final CompoundNBT tag = new CompoundNBT();
+
+        if (device != null) {
+            deviceTag = NBTSerialization.serialize(device);
+        }
+        if (deviceTag != null) {
+            tag.put(DEVICE_TAG_NAME, deviceTag);
+        }
+        if (address.isPresent()) {
+            tag.putLong(ADDRESS_TAG_NAME, address.getAsLong());
+        }
+        if (interrupt.isPresent()) {
+            tag.putInt(INTERRUPT_TAG_NAME, interrupt.getAsInt());
+        }
+
+        return tag;
+    }
+
+    @Override
+    public void deserializeNBT(final CompoundNBT tag) {
+        if (tag.contains(DEVICE_TAG_NAME, NBTTagIds.TAG_COMPOUND)) {
+            deviceTag = tag.getCompound(DEVICE_TAG_NAME);
+        }
+        if (tag.contains(ADDRESS_TAG_NAME, NBTTagIds.TAG_LONG)) {
+            address.set(tag.getLong(ADDRESS_TAG_NAME));
+        }
+        if (tag.contains(INTERRUPT_TAG_NAME, NBTTagIds.TAG_INT)) {
+            interrupt.set(tag.getInt(INTERRUPT_TAG_NAME));
+        }
+    }
+}
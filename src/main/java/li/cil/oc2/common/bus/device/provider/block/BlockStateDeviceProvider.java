@@ -7,11 +7,19 @@ import li.cil.oc2.api.bus.device.provider.BlockDeviceQuery;
 import li.cil.oc2.common.bus.device.provider.util.AbstractBlockDeviceProvider;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
+import net.minecraft.tileentity.TileEntityType;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.util.LazyOptional;
 
+import javax.annotation.Nullable;
+
 public final class BlockStateDeviceProvider extends AbstractBlockDeviceProvider {
+    @Override
+    public boolean canProvideDevice(final Block block, @Nullable final TileEntityType<?> tileEntityType) {
+        return Callbacks.hasMethods(block);
+    }
+
     @Override
     public LazyOptional<Device> getDevice(final BlockDeviceQuery query) {
         final World world = query.getLevel();
@@ -4,8 +4,11 @@ import li.cil.oc2.api.bus.device.Device;
 import li.cil.oc2.api.bus.device.object.Callback;
 import li.cil.oc2.api.bus.device.object.ObjectDevice;
 import li.cil.oc2.api.bus.device.provider.BlockDeviceQuery;
+import li.cil.oc2.api.bus.device.rpc.RPCEventListener;
+import li.cil.oc2.api.bus.device.rpc.RPCEventSource;
 import li.cil.oc2.common.bus.device.provider.util.AbstractTileEntityCapabilityDeviceProvider;
 import li.cil.oc2.common.bus.device.util.IdentityProxy;
+import li.cil.oc2.common.bus.device.util.PolledEventSource;
 import li.cil.oc2.common.capabilities.Capabilities;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.common.util.LazyOptional;
@@ -25,11 +28,26 @@ public final class EnergyStorageBlockDeviceProvider extends AbstractTileEntityCa
 
     ///////////////////////////////////////////////////////////////////
 
-    public static final class EnergyStorageDevice extends IdentityProxy<IEnergyStorage> {
+    public static final class EnergyStorageDevice extends IdentityProxy<IEnergyStorage> implements RPCEventSource {
+        private static final String ENERGY_CHANGED = "energy_changed";
+
+        private final PolledEventSource events = new PolledEventSource(this::pollEvents);
+        private int lastEnergyStored = -1;
+
         public EnergyStorageDevice(final IEnergyStorage identity) {
             super(identity);
         }
 
+        @Override
+        public void addEventListener(final RPCEventListener listener) {
+            events.addEventListener(listener);
+        }
+
+        @Override
+        public void removeEventListener(final RPCEventListener listener) {
+            events.removeEventListener(listener);
+        }
+
         @Callback
         public int getEnergyStored() {
             return identity.getEnergyStored();
@@ -49,5 +67,13 @@ public final class EnergyStorageBlockDeviceProvider extends AbstractTileEntityCa
         public boolean canReceive() {
             return identity.canReceive();
         }
+
+        private void pollEvents(final RPCEventListener publisher) {
+            final int energyStored = identity.getEnergyStored();
+            if (energyStored != lastEnergyStored) {
+                lastEnergyStored = energyStored;
+                publisher.handleEvent(ENERGY_CHANGED, energyStored);
+            }
+        }
     }
 }
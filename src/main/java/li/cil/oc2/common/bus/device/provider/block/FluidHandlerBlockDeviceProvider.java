@@ -4,8 +4,12 @@ import li.cil.oc2.api.bus.device.Device;
 import li.cil.oc2.api.bus.device.object.Callback;
 import li.cil.oc2.api.bus.device.object.ObjectDevice;
 import li.cil.oc2.api.bus.device.provider.BlockDeviceQuery;
+import li.cil.oc2.api.bus.device.rpc.RPCEventListener;
+import li.cil.oc2.api.bus.device.rpc.RPCEventSource;
 import li.cil.oc2.common.bus.device.provider.util.AbstractTileEntityCapabilityDeviceProvider;
 import li.cil.oc2.common.bus.device.util.IdentityProxy;
+import li.cil.oc2.common.bus.device.util.PolledEventSource;
+import li.cil.oc2.common.bus.device.util.VersionedSlotSnapshot;
 import li.cil.oc2.common.capabilities.Capabilities;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.common.util.LazyOptional;
@@ -26,11 +30,27 @@ public final class FluidHandlerBlockDeviceProvider extends AbstractTileEntityCap
 
     ///////////////////////////////////////////////////////////////////
 
-    public static final class FluidHandlerDevice extends IdentityProxy<IFluidHandler> {
+    public static final class FluidHandlerDevice extends IdentityProxy<IFluidHandler> implements RPCEventSource {
+        private static final String FLUIDS_CHANGED = "fluids_changed";
+
+        private final VersionedSlotSnapshot<FluidStack> snapshot = new VersionedSlotSnapshot<>(FluidStack::isFluidStackIdentical, FluidStack::copy);
+        private final PolledEventSource events = new PolledEventSource(this::pollEvents);
+        private long lastEventVersion;
+
         public FluidHandlerDevice(final IFluidHandler identity) {
             super(identity);
         }
 
+        @Override
+        public void addEventListener(final RPCEventListener listener) {
+            events.addEventListener(listener);
+        }
+
+        @Override
+        public void removeEventListener(final RPCEventListener listener) {
+            events.removeEventListener(listener);
+        }
+
         @Callback
         public int getTanks() {
             return identity.getTanks();
@@ -45,5 +65,46 @@ public final class FluidHandlerBlockDeviceProvider extends AbstractTileEntityCap
         public int getTankCapacity(final int tank) {
             return identity.getTankCapacity(tank);
         }
+
+        @Callback
+        public FluidStack[] getFluids() {
+            final FluidStack[] fluids = new FluidStack[identity.getTanks()];
+            for (int tank = 0; tank < fluids.length; tank++) {
+                fluids[tank] = identity.getFluidInTank(tank);
+            }
+            return fluids;
+        }
+
+        @Callback
+        public FluidStack[] getFluids(final int first, final int count) {
+            final int total = identity.getTanks();
+            final int from = VersionedSlotSnapshot.clampSlot(first, total);
+            final int to = VersionedSlotSnapshot.clampSlot((long) first + Math.max(0, count), total);
+            final FluidStack[] fluids = new FluidStack[to - from];
+            for (int tank = from; tank < to; tank++) {
+                fluids[tank - from] = identity.getFluidInTank(tank);
+            }
+            return fluids;
+        }
+
+        @Callback
+        public VersionedSlotSnapshot.Changes<FluidStack> getFluidsChangedSince(final long version) {
+            snapshot.update(identity.getTanks(), identity::getFluidInTank);
+            return snapshot.getChangesSince(version);
+        }
+
+        @Callback
+        public VersionedSlotSnapshot.Changes<FluidStack> getFluidsChangedSince(final long version, final int first, final int count) {
+            snapshot.update(identity.getTanks(), identity::getFluidInTank);
+            return snapshot.getChangesSince(version, first, count);
+        }
+
+        private void pollEvents(final RPCEventListener publisher) {
+            final long version = snapshot.update(identity.getTanks(), identity::getFluidInTank);
+            if (version != lastEventVersion) {
+                publisher.handleEvent(FLUIDS_CHANGED, snapshot.getChangesSince(lastEventVersion));
+                lastEventVersion = version;
+            }
+        }
     }
 }
@@ -4,8 +4,12 @@ import li.cil.oc2.api.bus.device.Device;
 import li.cil.oc2.api.bus.device.object.Callback;
 import li.cil.oc2.api.bus.device.object.ObjectDevice;
 import li.cil.oc2.api.bus.device.provider.BlockDeviceQuery;
+import li.cil.oc2.api.bus.device.rpc.RPCEventListener;
+import li.cil.oc2.api.bus.device.rpc.RPCEventSource;
 import li.cil.oc2.common.bus.device.provider.util.AbstractTileEntityCapabilityDeviceProvider;
 import li.cil.oc2.common.bus.device.util.IdentityProxy;
+import li.cil.oc2.common.bus.device.util.PolledEventSource;
+import li.cil.oc2.common.bus.device.util.VersionedSlotSnapshot;
 import li.cil.oc2.common.capabilities.Capabilities;
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
@@ -26,11 +30,27 @@ public final class ItemHandlerBlockDeviceProvider extends AbstractTileEntityCapa
 
     ///////////////////////////////////////////////////////////////////
 
-    public static final class ItemHandlerDevice extends IdentityProxy<IItemHandler> {
+    public static final class ItemHandlerDevice extends IdentityProxy<IItemHandler> implements RPCEventSource {
+        private static final String INVENTORY_CHANGED = "inventory_changed";
+
+        private final VersionedSlotSnapshot<ItemStack> snapshot = new VersionedSlotSnapshot<>(ItemStack::matches, ItemStack::copy);
+        private final PolledEventSource events = new PolledEventSource(this::pollEvents);
+        private long lastEventVersion;
+
         public ItemHandlerDevice(final IItemHandler identity) {
             super(identity);
         }
 
+        @Override
+        public void addEventListener(final RPCEventListener listener) {
+            events.addEventListener(listener);
+        }
+
+        @Override
+        public void removeEventListener(final RPCEventListener listener) {
+            events.removeEventListener(listener);
+        }
+
         @Callback
         public int getSlotCount() {
             return identity.getSlots();
@@ -45,5 +65,46 @@ public final class ItemHandlerBlockDeviceProvider extends AbstractTileEntityCapa
         public int getSlotLimit(final int slot) {
             return identity.getSlotLimit(slot);
         }
+
+        @Callback
+        public ItemStack[] getStacks() {
+            final ItemStack[] stacks = new ItemStack[identity.getSlots()];
+            for (int slot = 0; slot < stacks.length; slot++) {
+                stacks[slot] = identity.getStackInSlot(slot);
+            }
+            return stacks;
+        }
+
+        @Callback
+        public ItemStack[] getStacks(final int first, final int count) {
+            final int total = identity.getSlots();
+            final int from = VersionedSlotSnapshot.clampSlot(first, total);
+            final int to = VersionedSlotSnapshot.clampSlot((long) first + Math.max(0, count), total);
+            final ItemStack[] stacks = new ItemStack[to - from];
+            for (int slot = from; slot < to; slot++) {
+                stacks[slot - from] = identity.getStackInSlot(slot);
+            }
+            return stacks;
+        }
+
+        @Callback
+        public VersionedSlotSnapshot.Changes<ItemStack> getStacksChangedSince(final long version) {
+            snapshot.update(identity.getSlots(), identity::getStackInSlot);
+            return snapshot.getChangesSince(version);
+        }
+
+        @Callback
+        public VersionedSlotSnapshot.Changes<ItemStack> getStacksChangedSince(final long version, final int first, final int count) {
+            snapshot.update(identity.getSlots(), identity::getStackInSlot);
+            return snapshot.getChangesSince(version, first, count);
+        }
+
+        private void pollEvents(final RPCEventListener publisher) {
+            final long version = snapshot.update(identity.getSlots(), identity::getStackInSlot);
+            if (version != lastEventVersion) {
+                publisher.handleEvent(INVENTORY_CHANGED, snapshot.getChangesSince(lastEventVersion));
+                lastEventVersion = version;
+            }
+        }
     }
 }
@@ -0,0 +1,35 @@
+package li.cil.oc2.common.bus.device.provider.item;
+
+import li.cil.oc2.api.bus.device.ItemDevice;
+import li.cil.oc2.api.bus.device.provider.ItemDeviceQuery;
+import li.cil.oc2.common.Config;
+import li.cil.oc2.common.bus.device.item.SharedFolderCardItemDevice;
+import li.cil.oc2.common.bus.device.provider.util.AbstractItemDeviceProvider;
+import li.cil.oc2.common.item.Items;
+
+import java.io.File;
+import java.util.Optional;
+
+public final class SharedFolderCardItemDeviceProvider extends AbstractItemDeviceProvider {
+    public SharedFolderCardItemDeviceProvider() {
+        super(Items.SHARED_FOLDER_CARD);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    protected boolean matches(final ItemDeviceQuery query) {
+        return super.matches(query) && Config.sharedFolderEnabled();
+    }
+
+    @Override
+    protected Optional<ItemDevice> getItemDevice(final ItemDeviceQuery query) {
+        // The shared folder does not depend on the container, so this works in any container.
+        return Optional.of(new SharedFolderCardItemDevice(query.getItemStack(), new File(Config.sharedFolderPath)));
+    }
+
+    @Override
+    protected int getItemDeviceEnergyConsumption(final ItemDeviceQuery query) {
+        return Config.sharedFolderCardEnergyPerTick;
+    }
+}
@@ -1,7 +1,25 @@
 package li.cil.oc2.common.bus.device.provider.util;
 
 import li.cil.oc2.api.bus.device.provider.BlockDeviceProvider;
+import net.minecraft.block.Block;
+import net.minecraft.tileentity.TileEntityType;
 import net.minecraftforge.registries.ForgeRegistryEntry;
 
+import javax.annotation.Nullable;
+
 public abstract class AbstractBlockDeviceProvider extends ForgeRegistryEntry<BlockDeviceProvider> implements BlockDeviceProvider {
+    /**
+     * Checks whether this provider may return a device for a block of the specified type.
+     * <p>
+     * The result of this is cached, so it must only depend on the passed types. Returning
+     * {@code true} does not mean a device will be provided, but returning {@code false}
+     * means this provider will not be queried for such blocks.
+     *
+     * @param block          the block at the queried position.
+     * @param tileEntityType the type of the tile entity at the queried position, if any.
+     * @return {@code true} if this provider may provide a device; {@code false} otherwise.
+     */
+    public boolean canProvideDevice(final Block block, @Nullable final TileEntityType<?> tileEntityType) {
+        return true;
+    }
 }
@@ -36,6 +36,20 @@ public abstract class AbstractItemDeviceProvider extends ForgeRegistryEntry<Item
 
     ///////////////////////////////////////////////////////////////////
 
+    /**
+     * Checks whether this provider may return a device for the specified item.
+     * <p>
+     * The result of this is cached. Implementations of {@link #matches(ItemDeviceQuery)}
+     * must call the super implementation, so they never match items this returns
+     * {@code false} for.
+     *
+     * @param item the item to check.
+     * @return {@code true} if this provider may provide a device; {@code false} otherwise.
+     */
+    public final boolean canProvideDevice(final Item item) {
+        return predicate.test(item);
+    }
+
     @Override
     public final Optional<ItemDevice> getDevice(final ItemDeviceQuery query) {
         return matches(query) ? getItemDevice(query) : Optional.empty();
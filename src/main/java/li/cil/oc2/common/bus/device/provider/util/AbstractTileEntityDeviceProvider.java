@@ -3,10 +3,13 @@ package li.cil.oc2.common.bus.device.provider.util;
 import li.cil.oc2.api.bus.device.Device;
 import li.cil.oc2.api.bus.device.provider.BlockDeviceQuery;
 import li.cil.oc2.common.util.WorldUtils;
+import net.minecraft.block.Block;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.tileentity.TileEntityType;
 import net.minecraftforge.common.util.LazyOptional;
 
+import javax.annotation.Nullable;
+
 public abstract class AbstractTileEntityDeviceProvider<T extends TileEntity> extends AbstractBlockDeviceProvider {
     private final TileEntityType<T> tileEntityType;
 
@@ -22,6 +25,11 @@ public abstract class AbstractTileEntityDeviceProvider<T extends TileEntity> ext
 
     ///////////////////////////////////////////////////////////////////
 
+    @Override
+    public boolean canProvideDevice(final Block block, @Nullable final TileEntityType<?> tileEntityType) {
+        return tileEntityType != null && (this.tileEntityType == null || this.tileEntityType == tileEntityType);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public final LazyOptional<Device> getDevice(final BlockDeviceQuery query) {
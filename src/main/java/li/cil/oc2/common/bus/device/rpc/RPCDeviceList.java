@@ -1,6 +1,8 @@
 package li.cil.oc2.common.bus.device.rpc;
 
 import li.cil.oc2.api.bus.device.rpc.RPCDevice;
+import li.cil.oc2.api.bus.device.rpc.RPCEventListener;
+import li.cil.oc2.api.bus.device.rpc.RPCEventSource;
 import li.cil.oc2.api.bus.device.rpc.RPCMethod;
 
 import java.util.ArrayList;
@@ -9,7 +11,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
-public final class RPCDeviceList implements RPCDevice {
+public final class RPCDeviceList implements RPCDevice, RPCEventSource {
     private final ArrayList<RPCDevice> devices;
 
     ///////////////////////////////////////////////////////////////////
@@ -35,6 +37,24 @@ public final class RPCDeviceList implements RPCDevice {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public void addEventListener(final RPCEventListener listener) {
+        for (final RPCDevice device : devices) {
+            if (device instanceof RPCEventSource) {
+                ((RPCEventSource) device).addEventListener(listener);
+            }
+        }
+    }
+
+    @Override
+    public void removeEventListener(final RPCEventListener listener) {
+        for (final RPCDevice device : devices) {
+            if (device instanceof RPCEventSource) {
+                ((RPCEventSource) device).removeEventListener(listener);
+            }
+        }
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -31,6 +31,10 @@ public final class RPCItemStackTagFilter {
 
         final CompoundNBT filtered = new CompoundNBT();
         for (final String[] path : paths) {
+            if (path == null) {
+                continue;
+            }
+
             final CompoundNBT filteredByPath = filterPath(path, tag);
             if (filteredByPath != null) {
                 filtered.merge(filteredByPath);
@@ -73,6 +77,10 @@ public final class RPCItemStackTagFilter {
     }
 
     private void validatePaths() {
+        if (paths != null) {
+            return;
+        }
+
         paths = new String[tags.length][];
         for (int i = 0; i < tags.length; i++) {
             if (!StringUtils.isNullOrEmpty(tags[i])) {
@@ -3,6 +3,7 @@ package li.cil.oc2.common.bus.device.rpc;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import li.cil.oc2.common.serialization.serializers.ItemStackJsonSerializer;
 import net.minecraft.client.resources.JsonReloadListener;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundNBT;
@@ -74,6 +75,8 @@ public final class RPCItemStackTagFilters {
                     LOGGER.error("Failed loading item tag filter [{}].", location, e);
                 }
             });
+
+            ItemStackJsonSerializer.clearCache();
         }
     }
 }
@@ -8,21 +8,46 @@ import li.cil.oc2.api.bus.device.provider.BlockDeviceQuery;
 import li.cil.oc2.api.bus.device.provider.ItemDeviceProvider;
 import li.cil.oc2.api.bus.device.provider.ItemDeviceQuery;
 import li.cil.oc2.common.bus.device.provider.Providers;
+import li.cil.oc2.common.bus.device.provider.util.AbstractBlockDeviceProvider;
+import li.cil.oc2.common.bus.device.provider.util.AbstractItemDeviceProvider;
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
 import net.minecraft.entity.Entity;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraft.tileentity.TileEntityType;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.LazyOptional;
-import net.minecraftforge.registries.IForgeRegistry;
+import net.minecraftforge.event.TagsUpdatedEvent;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Objects.requireNonNull;
 
 public final class Devices {
+    // Providers that may provide devices for a block or item type. Built lazily, so that
+    // repeated queries, e.g. from neighbor changes, only hit the providers that can match.
+    private static final Map<BlockProviderKey, List<BlockDeviceProvider>> BLOCK_DEVICE_PROVIDERS = new ConcurrentHashMap<>();
+    private static final Map<Item, List<ItemDeviceProvider>> ITEM_DEVICE_PROVIDERS = new ConcurrentHashMap<>();
+
+    ///////////////////////////////////////////////////////////////////
+
+    public static void initialize() {
+        MinecraftForge.EVENT_BUS.addListener(Devices::handleTagsUpdated);
+    }
+
+    public static void clearProviderCache() {
+        BLOCK_DEVICE_PROVIDERS.clear();
+        ITEM_DEVICE_PROVIDERS.clear();
+    }
+
     public static BlockDeviceQuery makeQuery(final TileEntity tileEntity, @Nullable final Direction side) {
         final World world = requireNonNull(tileEntity.getLevel());
         final BlockPos pos = tileEntity.getBlockPos();
@@ -46,9 +71,8 @@ public final class Devices {
     }
 
     public static List<LazyOptional<BlockDeviceInfo>> getDevices(final BlockDeviceQuery query) {
-        final IForgeRegistry<BlockDeviceProvider> registry = Providers.BLOCK_DEVICE_PROVIDER_REGISTRY.get();
         final ArrayList<LazyOptional<BlockDeviceInfo>> devices = new ArrayList<>();
-        for (final BlockDeviceProvider provider : registry.getValues()) {
+        for (final BlockDeviceProvider provider : getProviders(query)) {
             final LazyOptional<Device> device = provider.getDevice(query);
             if (device.isPresent()) {
                 final LazyOptional<BlockDeviceInfo> info = device.lazyMap(d -> new BlockDeviceInfo(provider, d));
@@ -60,9 +84,8 @@ public final class Devices {
     }
 
     public static List<ItemDeviceInfo> getDevices(final ItemDeviceQuery query) {
-        final IForgeRegistry<ItemDeviceProvider> registry = Providers.ITEM_DEVICE_PROVIDER_REGISTRY.get();
         final ArrayList<ItemDeviceInfo> devices = new ArrayList<>();
-        for (final ItemDeviceProvider provider : registry.getValues()) {
+        for (final ItemDeviceProvider provider : getProviders(query)) {
             final Optional<ItemDevice> device = provider.getDevice(query);
             device.ifPresent(d -> devices.add(new ItemDeviceInfo(provider, d, provider.getEnergyConsumption(query))));
         }
@@ -70,9 +93,8 @@ public final class Devices {
     }
 
     public static Collection<DeviceType> getDeviceTypes(final ItemDeviceQuery query) {
-        final IForgeRegistry<ItemDeviceProvider> registry = Providers.ITEM_DEVICE_PROVIDER_REGISTRY.get();
         final HashSet<DeviceType> deviceTypes = new HashSet<>();
-        for (final ItemDeviceProvider provider : registry.getValues()) {
+        for (final ItemDeviceProvider provider : getProviders(query)) {
             final Optional<DeviceType> device = provider.getDeviceType(query);
             device.ifPresent(deviceTypes::add);
         }
@@ -80,9 +102,8 @@ public final class Devices {
     }
 
     public static int getEnergyConsumption(final ItemDeviceQuery query) {
-        final IForgeRegistry<ItemDeviceProvider> registry = Providers.ITEM_DEVICE_PROVIDER_REGISTRY.get();
         long accumulator = 0;
-        for (final ItemDeviceProvider provider : registry.getValues()) {
+        for (final ItemDeviceProvider provider : getProviders(query)) {
             accumulator += Math.max(0, provider.getEnergyConsumption(query));
         }
         if (accumulator > Integer.MAX_VALUE) {
@@ -94,6 +115,77 @@ public final class Devices {
 
     ///////////////////////////////////////////////////////////////////
 
+    private static void handleTagsUpdated(final TagsUpdatedEvent event) {
+        clearProviderCache();
+    }
+
+    private static List<BlockDeviceProvider> getProviders(final BlockDeviceQuery query) {
+        final World world = query.getLevel();
+        final BlockPos pos = query.getQueryPosition();
+        final ChunkPos chunkPos = new ChunkPos(pos);
+        final Block block;
+        final TileEntityType<?> tileEntityType;
+        if (world.hasChunk(chunkPos.x, chunkPos.z)) {
+            block = world.getBlockState(pos).getBlock();
+            final TileEntity tileEntity = world.getBlockEntity(pos);
+            tileEntityType = tileEntity != null ? tileEntity.getType() : null;
+        } else {
+            block = Blocks.AIR;
+            tileEntityType = null;
+        }
+
+        return BLOCK_DEVICE_PROVIDERS.computeIfAbsent(new BlockProviderKey(block, tileEntityType), key -> {
+            final ArrayList<BlockDeviceProvider> providers = new ArrayList<>();
+            for (final BlockDeviceProvider provider : Providers.BLOCK_DEVICE_PROVIDER_REGISTRY.get().getValues()) {
+                // We can only tell for our own providers, assume others may always match.
+                if (!(provider instanceof AbstractBlockDeviceProvider) ||
+                    ((AbstractBlockDeviceProvider) provider).canProvideDevice(key.block, key.tileEntityType)) {
+                    providers.add(provider);
+                }
+            }
+            return providers;
+        });
+    }
+
+    private static List<ItemDeviceProvider> getProviders(final ItemDeviceQuery query) {
+        return ITEM_DEVICE_PROVIDERS.computeIfAbsent(query.getItemStack().getItem(), item -> {
+            final ArrayList<ItemDeviceProvider> providers = new ArrayList<>();
+            for (final ItemDeviceProvider provider : Providers.ITEM_DEVICE_PROVIDER_REGISTRY.get().getValues()) {
+                // We can only tell for our own providers, assume others may always match.
+                if (!(provider instanceof AbstractItemDeviceProvider) ||
+                    ((AbstractItemDeviceProvider) provider).canProvideDevice(item)) {
+                    providers.add(provider);
+                }
+            }
+            return providers;
+        });
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final class BlockProviderKey {
+        public final Block block;
+        @Nullable public final TileEntityType<?> tileEntityType;
+
+        public BlockProviderKey(final Block block, @Nullable final TileEntityType<?> tileEntityType) {
+            this.block = block;
+            this.tileEntityType = tileEntityType;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final BlockProviderKey that = (BlockProviderKey) o;
+            return block == that.block && tileEntityType == that.tileEntityType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(block, tileEntityType);
+        }
+    }
+
     private static class BlockQuery implements BlockDeviceQuery {
         private final World world;
         private final BlockPos pos;
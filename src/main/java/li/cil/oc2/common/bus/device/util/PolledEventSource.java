@@ -0,0 +1,107 @@
+package li.cil.oc2.common.bus.device.util;
+
+import li.cil.oc2.api.bus.device.rpc.RPCEventListener;
+import li.cil.oc2.api.bus.device.rpc.RPCEventSource;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Event source for devices wrapping objects that do not notify about changes themselves, such as
+ * inventories or energy storages provided by other mods.
+ * <p>
+ * While a source has listeners, its {@link Poller} is called periodically on the server thread to
+ * check for changes and publish events for them. Sources without listeners are not polled at all.
+ * The first poll after the first listener was added only records the current state, so listeners
+ * are not flooded with events for changes that happened while nobody was listening.
+ */
+public final class PolledEventSource implements RPCEventSource {
+    private static final int POLL_INTERVAL_IN_TICKS = 5;
+
+    private static final Set<PolledEventSource> ACTIVE_SOURCES = ConcurrentHashMap.newKeySet();
+    private static final RPCEventListener NO_LISTENER = (name, data) -> {};
+    private static int ticksUntilPoll;
+
+    ///////////////////////////////////////////////////////////////////
+
+    private final Poller poller;
+    private final CopyOnWriteArraySet<RPCEventListener> listeners = new CopyOnWriteArraySet<>();
+    private volatile boolean needsBaseline;
+
+    ///////////////////////////////////////////////////////////////////
+
+    public static void initialize() {
+        MinecraftForge.EVENT_BUS.addListener(PolledEventSource::handleServerTick);
+        MinecraftForge.EVENT_BUS.addListener(PolledEventSource::handleServerStopped);
+    }
+
+    public PolledEventSource(final Poller poller) {
+        this.poller = poller;
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    public synchronized void addEventListener(final RPCEventListener listener) {
+        if (listeners.add(listener) && listeners.size() == 1) {
+            needsBaseline = true;
+            ACTIVE_SOURCES.add(this);
+        }
+    }
+
+    @Override
+    public synchronized void removeEventListener(final RPCEventListener listener) {
+        if (listeners.remove(listener) && listeners.isEmpty()) {
+            ACTIVE_SOURCES.remove(this);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @FunctionalInterface
+    public interface Poller {
+        /**
+         * Checks for changes since the last call and publishes events for them.
+         *
+         * @param publisher the listener to publish events to.
+         */
+        void poll(RPCEventListener publisher);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static void handleServerTick(final TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || --ticksUntilPoll > 0) {
+            return;
+        }
+
+        ticksUntilPoll = POLL_INTERVAL_IN_TICKS;
+        for (final PolledEventSource source : ACTIVE_SOURCES) {
+            source.poll();
+        }
+    }
+
+    private static void handleServerStopped(final FMLServerStoppedEvent event) {
+        ACTIVE_SOURCES.clear();
+    }
+
+    private void poll() {
+        if (needsBaseline) {
+            needsBaseline = false;
+            poller.poll(NO_LISTENER);
+            return;
+        }
+
+        poller.poll(this::publish);
+    }
+
+    private void publish(final String name, final Object data) {
+        for (final RPCEventListener listener : listeners) {
+            listener.handleEvent(name, data);
+        }
+    }
+}
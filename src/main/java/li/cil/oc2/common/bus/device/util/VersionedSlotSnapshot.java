@@ -0,0 +1,152 @@
+package li.cil.oc2.common.bus.device.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Tracks changes to the contents of a list of slots, such as an inventory, to allow querying
+ * only those slots that changed since some earlier query.
+ * <p>
+ * Versions are taken from a global counter, so versions of different snapshots never overlap.
+ * In particular, this means a version obtained from a snapshot that was since discarded, e.g.
+ * because the device got recreated, will always be older than all versions of a new snapshot,
+ * so all slots will be reported as changed, as they should.
+ *
+ * @param <T> the type of the values in the slots.
+ */
+public final class VersionedSlotSnapshot<T> {
+    private static final AtomicLong VERSION_COUNTER = new AtomicLong();
+
+    ///////////////////////////////////////////////////////////////////
+
+    private final BiPredicate<T, T> equality;
+    private final UnaryOperator<T> copy;
+    private Object[] values = new Object[0];
+    private long[] versions = new long[0];
+    private long version;
+
+    ///////////////////////////////////////////////////////////////////
+
+    public VersionedSlotSnapshot(final BiPredicate<T, T> equality, final UnaryOperator<T> copy) {
+        this.equality = equality;
+        this.copy = copy;
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    /**
+     * Compares the current slot contents to the last known ones and assigns a new version to
+     * all slots that changed.
+     *
+     * @param count  the current number of slots.
+     * @param getter provides the current value of a slot.
+     * @return the current version of the snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public long update(final int count, final IntFunction<T> getter) {
+        final int knownCount = values.length;
+        if (count != knownCount) {
+            values = Arrays.copyOf(values, count);
+            versions = Arrays.copyOf(versions, count);
+        }
+
+        long newVersion = 0;
+        for (int slot = 0; slot < count; slot++) {
+            final T value = getter.apply(slot);
+            if (slot >= knownCount || !equality.test((T) values[slot], value)) {
+                if (newVersion == 0) {
+                    newVersion = VERSION_COUNTER.incrementAndGet();
+                }
+
+                values[slot] = copy.apply(value);
+                versions[slot] = newVersion;
+            }
+        }
+
+        if (newVersion != 0) {
+            version = newVersion;
+        } else if (count != knownCount) {
+            version = VERSION_COUNTER.incrementAndGet(); // Only lost slots, still a change.
+        }
+
+        return version;
+    }
+
+    /**
+     * Collects the slots that changed after the specified version, as of the last call
+     * to {@link #update(int, IntFunction)}.
+     *
+     * @param sinceVersion the last version known to the caller.
+     * @return the current version, slot count and the slots changed since that version.
+     */
+    public Changes<T> getChangesSince(final long sinceVersion) {
+        return getChangesSince(sinceVersion, 0, versions.length);
+    }
+
+    /**
+     * Collects the slots in the specified range that changed after the specified version, as
+     * of the last call to {@link #update(int, IntFunction)}.
+     * <p>
+     * The range is clamped to the known slots. The returned version still covers all slots,
+     * so callers querying different ranges should track versions per range.
+     *
+     * @param sinceVersion the last version known to the caller.
+     * @param firstSlot    the first slot to include.
+     * @param slotCount    the number of slots to include.
+     * @return the current version, slot count and the slots in the range changed since that version.
+     */
+    @SuppressWarnings("unchecked")
+    public Changes<T> getChangesSince(final long sinceVersion, final int firstSlot, final int slotCount) {
+        final int from = clampSlot(firstSlot, versions.length);
+        final int to = clampSlot((long) firstSlot + Math.max(0, slotCount), versions.length);
+
+        final ArrayList<Slot<T>> slots = new ArrayList<>();
+        for (int slot = from; slot < to; slot++) {
+            if (versions[slot] > sinceVersion) {
+                slots.add(new Slot<>(slot, (T) values[slot]));
+            }
+        }
+        return new Changes<>(version, values.length, slots);
+    }
+
+    /**
+     * Clamps a slot index to the range {@code [0, count]}, e.g. for computing the bounds of a
+     * requested range of slots.
+     *
+     * @param slot  the slot index to clamp.
+     * @param count the number of slots.
+     * @return the clamped slot index.
+     */
+    public static int clampSlot(final long slot, final int count) {
+        return (int) Math.max(0, Math.min(slot, count));
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    public static final class Changes<T> {
+        public final long version;
+        public final int size;
+        public final List<Slot<T>> slots;
+
+        public Changes(final long version, final int size, final List<Slot<T>> slots) {
+            this.version = version;
+            this.size = size;
+            this.slots = slots;
+        }
+    }
+
+    public static final class Slot<T> {
+        public final int slot;
+        public final T value;
+
+        public Slot(final int slot, final T value) {
+            this.slot = slot;
+            this.value = value;
+        }
+    }
+}
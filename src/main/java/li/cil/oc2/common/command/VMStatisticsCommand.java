@@ -0,0 +1,72 @@
+package li.cil.oc2.common.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import li.cil.oc2.api.API;
+import li.cil.oc2.common.vm.VMStatistics;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.RegisterCommandsEvent;
+
+import java.util.List;
+
+/**
+ * Admin command listing performance statistics of all running virtual machines.
+ * <p>
+ * Usage: {@code /oc2 vmstats}
+ */
+public final class VMStatisticsCommand {
+    private static final int PERMISSION_LEVEL = 2;
+
+    ///////////////////////////////////////////////////////////////////
+
+    public static void initialize() {
+        MinecraftForge.EVENT_BUS.addListener(VMStatisticsCommand::handleRegisterCommands);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static void handleRegisterCommands(final RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(final CommandDispatcher<CommandSource> dispatcher) {
+        dispatcher.register(Commands.literal(API.MOD_ID)
+                .requires(source -> source.hasPermission(PERMISSION_LEVEL))
+                .then(Commands.literal("vmstats")
+                        .executes(context -> list(context.getSource()))));
+    }
+
+    private static int list(final CommandSource source) {
+        final List<VMStatistics> registered = VMStatistics.getRegistered();
+        source.sendSuccess(new StringTextComponent(String.format("%d virtual machine(s) running.", registered.size())), false);
+
+        for (final VMStatistics statistics : registered) {
+            final VMStatistics.Snapshot snapshot = statistics.snapshot();
+            source.sendSuccess(new StringTextComponent(snapshot.getDescription()), false);
+            source.sendSuccess(new StringTextComponent(String.format(
+                    "  cycles: %.1f%% of budget, slices: %d, avg: %.2fms, max: %.2fms, overruns: %d",
+                    percentage(snapshot.getCyclesExecuted(), snapshot.getCyclesBudgeted()),
+                    snapshot.getTimeslices(),
+                    average(snapshot.getTimesliceNanos(), snapshot.getTimeslices()) / 1_000_000.0,
+                    snapshot.getMaxTimesliceNanos() / 1_000_000.0,
+                    snapshot.getOverruns())), false);
+            source.sendSuccess(new StringTextComponent(String.format(
+                    "  rpc calls: %d, avg latency: %.2fms, terminal output: %d bytes",
+                    snapshot.getRPCCalls(),
+                    average(snapshot.getRPCLatencyNanos(), snapshot.getRPCCalls()) / 1_000_000.0,
+                    snapshot.getTerminalBytes())), false);
+        }
+
+        return registered.size();
+    }
+
+    private static double percentage(final long value, final long total) {
+        return total > 0 ? value * 100.0 / total : 0;
+    }
+
+    private static double average(final long value, final long count) {
+        return count > 0 ? (double) value / count : 0;
+    }
+}
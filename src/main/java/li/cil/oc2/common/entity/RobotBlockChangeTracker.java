@@ -0,0 +1,132 @@
+package li.cil.oc2.common.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.IWorld;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.BlockEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Notifies robots when blocks change in the space they occupied during their last collision check.
+ * <p>
+ * A single listener serves all robots. Robots register the block positions they occupy, so
+ * handling a block change costs one lookup, regardless of the number of robots in the world.
+ * <p>
+ * Only used on the server thread.
+ */
+public final class RobotBlockChangeTracker {
+    private static final HashMap<IWorld, Long2ObjectMap<List<RobotEntity>>> ROBOTS_BY_POSITION = new HashMap<>();
+    private static final HashMap<RobotEntity, TrackedArea> TRACKED_AREAS = new HashMap<>();
+
+    ///////////////////////////////////////////////////////////////////
+
+    public static void initialize() {
+        MinecraftForge.EVENT_BUS.addListener(RobotBlockChangeTracker::handleNeighborNotify);
+    }
+
+    /**
+     * Starts tracking block changes in the specified area for a robot, replacing any
+     * previously tracked area.
+     *
+     * @param robot  the robot to notify of block changes.
+     * @param bounds the area to watch for block changes.
+     */
+    static void track(final RobotEntity robot, final AxisAlignedBB bounds) {
+        untrack(robot);
+
+        final int minX = MathHelper.floor(bounds.minX), maxX = MathHelper.floor(bounds.maxX);
+        final int minY = MathHelper.floor(bounds.minY), maxY = MathHelper.floor(bounds.maxY);
+        final int minZ = MathHelper.floor(bounds.minZ), maxZ = MathHelper.floor(bounds.maxZ);
+
+        final Long2ObjectMap<List<RobotEntity>> robots = ROBOTS_BY_POSITION.computeIfAbsent(robot.level, world -> new Long2ObjectOpenHashMap<>());
+        final long[] positions = new long[(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1)];
+        int index = 0;
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    final long position = BlockPos.asLong(x, y, z);
+                    positions[index++] = position;
+
+                    List<RobotEntity> list = robots.get(position);
+                    if (list == null) {
+                        list = new ArrayList<>(1);
+                        robots.put(position, list);
+                    }
+                    list.add(robot);
+                }
+            }
+        }
+
+        TRACKED_AREAS.put(robot, new TrackedArea(robot.level, positions));
+    }
+
+    /**
+     * Stops tracking block changes for a robot.
+     *
+     * @param robot the robot to no longer notify of block changes.
+     */
+    static void untrack(final RobotEntity robot) {
+        final TrackedArea area = TRACKED_AREAS.remove(robot);
+        if (area == null) {
+            return;
+        }
+
+        final Long2ObjectMap<List<RobotEntity>> robots = ROBOTS_BY_POSITION.get(area.world);
+        if (robots == null) {
+            return;
+        }
+
+        for (final long position : area.positions) {
+            final List<RobotEntity> list = robots.get(position);
+            if (list != null) {
+                list.remove(robot);
+                if (list.isEmpty()) {
+                    robots.remove(position);
+                }
+            }
+        }
+
+        if (robots.isEmpty()) {
+            ROBOTS_BY_POSITION.remove(area.world);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static void handleNeighborNotify(final BlockEvent.NeighborNotifyEvent event) {
+        if (event.getWorld().isClientSide()) {
+            return;
+        }
+
+        final Long2ObjectMap<List<RobotEntity>> robots = ROBOTS_BY_POSITION.get(event.getWorld());
+        if (robots == null) {
+            return;
+        }
+
+        final List<RobotEntity> list = robots.get(event.getPos().asLong());
+        if (list != null) {
+            for (final RobotEntity robot : list) {
+                robot.handleBlockChange();
+            }
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final class TrackedArea {
+        public final IWorld world;
+        public final long[] positions;
+
+        public TrackedArea(final IWorld world, final long[] positions) {
+            this.world = world;
+            this.positions = positions;
+        }
+    }
+}
@@ -100,6 +100,10 @@ public final class RobotEntity extends Entity implements Robot {
     private static final int MODULE_SLOTS = 4;
     private static final int INVENTORY_SIZE = 12;
 
+    // Blocks changed without notifying neighbors do not trigger a collision check, so we
+    // still check every so often while stationary, just not every tick.
+    private static final int STATIONARY_COLLISION_CHECK_INTERVAL = SECONDS_TO_TICKS;
+
     ///////////////////////////////////////////////////////////////////
 
     private final Consumer<ChunkEvent.Unload> chunkUnloadListener = this::handleChunkUnload;
@@ -115,6 +119,8 @@ public final class RobotEntity extends Entity implements Robot {
     private final FixedEnergyStorage energy = new FixedEnergyStorage(Config.robotEnergyStorage);
     private final ItemStackHandler inventory = new FixedSizeItemStackHandler(INVENTORY_SIZE);
     private long lastPistonMovement;
+    @Nullable private AxisAlignedBB lastCollisionCheckBounds;
+    private long lastCollisionCheckTime;
 
     ///////////////////////////////////////////////////////////////////
 
@@ -123,7 +129,7 @@ public final class RobotEntity extends Entity implements Robot {
         this.blocksBuilding = true;
         setNoGravity(true);
 
-        final CommonDeviceBusController busController = new CommonDeviceBusController(busElement, Config.robotEnergyPerTick);
+        final CommonDeviceBusController busController = new CommonDeviceBusController(busElement, Config.getCpuEnergyPerTick(Config.robotEnergyPerTick, Config.robotCpuFrequency));
         virtualMachine = new RobotVirtualMachine(busController);
         virtualMachine.state.builtinDevices.rtcMinecraft.setWorld(world);
     }
@@ -257,38 +263,8 @@ public final class RobotEntity extends Entity implements Robot {
 
         actionProcessor.tick();
 
-        if (!isClient && level instanceof ServerWorld) {
-            final VoxelShape shape = VoxelShapes.create(getBoundingBox());
-            final CubeCoordinateIterator iterator = getBlockPosIterator();
-            while (iterator.advance()) {
-                final int x = iterator.nextX();
-                final int y = iterator.nextY();
-                final int z = iterator.nextZ();
-                mutablePosition.set(x, y, z);
-                final BlockState blockState = level.getBlockState(mutablePosition);
-                if (blockState.isAir(level, mutablePosition) ||
-                    blockState.is(Blocks.MOVING_PISTON) ||
-                    blockState.is(Blocks.PISTON_HEAD)) {
-                    continue;
-                }
-
-                final VoxelShape blockShape = blockState.getCollisionShape(level, mutablePosition);
-                if (VoxelShapes.joinIsNotEmpty(shape, blockShape.move(x, y, z), IBooleanFunction.AND)) {
-                    final TileEntity tileEntity = blockState.hasTileEntity() ? level.getBlockEntity(mutablePosition) : null;
-                    final LootContext.Builder builder = new LootContext.Builder((ServerWorld) level)
-                            .withRandom(level.random)
-                            .withParameter(LootParameters.THIS_ENTITY, this)
-                            .withParameter(LootParameters.ORIGIN, position())
-                            .withParameter(LootParameters.TOOL, ItemStack.EMPTY)
-                            .withParameter(LootParameters.BLOCK_STATE, blockState)
-                            .withOptionalParameter(LootParameters.BLOCK_ENTITY, tileEntity);
-                    final List<ItemStack> drops = blockState.getDrops(builder);
-                    level.setBlockAndUpdate(mutablePosition, Blocks.AIR.defaultBlockState());
-                    for (final ItemStack drop : drops) {
-                        Block.popResource(level, mutablePosition, drop);
-                    }
-                }
-            }
+        if (!isClient && level instanceof ServerWorld && needsCollisionCheck()) {
+            breakCollidingBlocks();
         }
     }
 
@@ -323,10 +299,17 @@ public final class RobotEntity extends Entity implements Robot {
     public void remove(final boolean keepData) {
         super.remove(keepData);
 
+        RobotBlockChangeTracker.untrack(this);
         virtualMachine.suspend();
 
         // Full unload to release out-of-nbt persisted runtime-only data such as ram.
         virtualMachine.state.vmAdapter.unmount();
+
+        // When keeping data, e.g. when changing dimensions, a copy of us continues
+        // using our serialized state, so we must not delete it.
+        if (!keepData && !level.isClientSide()) {
+            virtualMachine.deleteSerializedState();
+        }
     }
 
     @Override
@@ -437,6 +420,61 @@ public final class RobotEntity extends Entity implements Robot {
     private void unregisterListeners() {
         MinecraftForge.EVENT_BUS.unregister(chunkUnloadListener);
         MinecraftForge.EVENT_BUS.unregister(worldUnloadListener);
+        RobotBlockChangeTracker.untrack(this);
+    }
+
+    void handleBlockChange() {
+        // Called by RobotBlockChangeTracker when a block in our last checked bounds changed.
+        lastCollisionCheckBounds = null;
+    }
+
+    private boolean needsCollisionCheck() {
+        // Only robots that moved, or had blocks change in the space they occupy, can have
+        // started colliding with blocks since the last check.
+        return lastCollisionCheckBounds == null ||
+               !lastCollisionCheckBounds.equals(getBoundingBox()) ||
+               level.getGameTime() - lastCollisionCheckTime >= STATIONARY_COLLISION_CHECK_INTERVAL;
+    }
+
+    private void breakCollidingBlocks() {
+        final AxisAlignedBB bounds = getBoundingBox();
+        if (!bounds.equals(lastCollisionCheckBounds)) {
+            RobotBlockChangeTracker.track(this, bounds);
+        }
+        lastCollisionCheckBounds = bounds;
+        lastCollisionCheckTime = level.getGameTime();
+
+        final VoxelShape shape = VoxelShapes.create(bounds);
+        final CubeCoordinateIterator iterator = getBlockPosIterator();
+        while (iterator.advance()) {
+            final int x = iterator.nextX();
+            final int y = iterator.nextY();
+            final int z = iterator.nextZ();
+            mutablePosition.set(x, y, z);
+            final BlockState blockState = level.getBlockState(mutablePosition);
+            if (blockState.isAir(level, mutablePosition) ||
+                blockState.is(Blocks.MOVING_PISTON) ||
+                blockState.is(Blocks.PISTON_HEAD)) {
+                continue;
+            }
+
+            final VoxelShape blockShape = blockState.getCollisionShape(level, mutablePosition);
+            if (VoxelShapes.joinIsNotEmpty(shape, blockShape.move(x, y, z), IBooleanFunction.AND)) {
+                final TileEntity tileEntity = blockState.hasTileEntity() ? level.getBlockEntity(mutablePosition) : null;
+                final LootContext.Builder builder = new LootContext.Builder((ServerWorld) level)
+                        .withRandom(level.random)
+                        .withParameter(LootParameters.THIS_ENTITY, this)
+                        .withParameter(LootParameters.ORIGIN, position())
+                        .withParameter(LootParameters.TOOL, ItemStack.EMPTY)
+                        .withParameter(LootParameters.BLOCK_STATE, blockState)
+                        .withOptionalParameter(LootParameters.BLOCK_ENTITY, tileEntity);
+                final List<ItemStack> drops = blockState.getDrops(builder);
+                level.setBlockAndUpdate(mutablePosition, Blocks.AIR.defaultBlockState());
+                for (final ItemStack drop : drops) {
+                    Block.popResource(level, mutablePosition, drop);
+                }
+            }
+        }
     }
 
     private void handleChunkUnload(final ChunkEvent.Unload event) {
@@ -589,6 +627,10 @@ public final class RobotEntity extends Entity implements Robot {
             return addAction(new RobotRotationAction(direction));
         }
 
+        public boolean followPath(final String[] steps) {
+            return addAction(new RobotPathAction(steps));
+        }
+
         public void tick() {
             if (level.isClientSide()) {
                 RobotActions.performClient(RobotEntity.this);
@@ -765,10 +807,15 @@ public final class RobotEntity extends Entity implements Robot {
 
     private final class RobotVirtualMachine extends AbstractVirtualMachine {
         private RobotVirtualMachine(final CommonDeviceBusController busController) {
-            super(busController);
+            super(busController, Config.robotCpuFrequency, Config.robotSchedulingWeight);
             state.vmAdapter.setBaseAddressProvider(deviceItems::getDeviceAddressBase);
         }
 
+        @Override
+        protected String getStatisticsDescription() {
+            return "Robot at " + blockPosition().toShortString() + " in " + level.dimension().location();
+        }
+
         @Override
         protected boolean consumeEnergy(final int amount, final boolean simulate) {
             if (!Config.robotsUseEnergy()) {
@@ -852,6 +899,12 @@ public final class RobotEntity extends Entity implements Robot {
             return actionProcessor.rotate(direction);
         }
 
+        @Callback(synchronize = false)
+        public boolean followPath(@Parameter("steps") @Nullable final String[] steps) {
+            if (steps == null) throw new IllegalArgumentException();
+            return actionProcessor.followPath(steps);
+        }
+
         @Callback(synchronize = false)
         public int getLastActionId() {
             return actionProcessor.lastActionId;
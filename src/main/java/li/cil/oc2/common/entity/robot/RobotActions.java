@@ -16,6 +16,7 @@ public final class RobotActions {
 
     public static final AbstractRobotActionType MOVEMENT = register(RobotMovementActionType::new);
     public static final AbstractRobotActionType ROTATION = register(RobotRotationActionType::new);
+    public static final AbstractRobotActionType PATH = register(RobotPathActionType::new);
 
     ///////////////////////////////////////////////////////////////////
 
@@ -26,8 +27,12 @@ public final class RobotActions {
     }
 
     public static void performServer(final RobotEntity robot, final AbstractRobotAction currentAction) {
+        // Paths are performed step by step, let action types see the step in progress.
+        final AbstractRobotAction action = currentAction instanceof RobotPathAction
+                ? ((RobotPathAction) currentAction).getCurrentStep()
+                : currentAction;
         for (final AbstractRobotActionType type : ACTIONS) {
-            type.performServer(robot, currentAction);
+            type.performServer(robot, action);
         }
     }
 
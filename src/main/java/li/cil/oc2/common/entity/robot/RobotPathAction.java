@@ -0,0 +1,144 @@
+package li.cil.oc2.common.entity.robot;
+
+import li.cil.oc2.common.entity.RobotEntity;
+import li.cil.oc2.common.util.NBTTagIds;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+
+/**
+ * Performs a sequence of movement and rotation steps as a single action.
+ * <p>
+ * This allows programs to hand over whole paths at once, instead of queueing each step
+ * separately and waiting for the queue to drain. Execution stops at the first failing step.
+ */
+public final class RobotPathAction extends AbstractRobotAction {
+    public static final int MAX_PATH_LENGTH = 256;
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final String STEPS_TAG_NAME = "steps";
+    private static final String STEP_TAG_NAME = "step";
+
+    ///////////////////////////////////////////////////////////////////
+
+    private final ArrayDeque<AbstractRobotAction> steps = new ArrayDeque<>();
+    @Nullable private AbstractRobotAction step;
+
+    ///////////////////////////////////////////////////////////////////
+
+    public RobotPathAction(final String[] steps) {
+        super(RobotActions.PATH);
+
+        if (steps.length > MAX_PATH_LENGTH) {
+            throw new IllegalArgumentException("path too long");
+        }
+
+        for (final String step : steps) {
+            this.steps.add(parseStep(step));
+        }
+    }
+
+    RobotPathAction(final CompoundNBT tag) {
+        super(RobotActions.PATH);
+        deserialize(tag);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Nullable
+    public AbstractRobotAction getCurrentStep() {
+        return step;
+    }
+
+    @Override
+    public void initialize(final RobotEntity robot) {
+        // When restored after loading, continue the step that was in progress.
+        if (step != null) {
+            step.initialize(robot);
+        }
+    }
+
+    @Override
+    public RobotActionResult perform(final RobotEntity robot) {
+        if (step == null && !beginNextStep(robot)) {
+            return RobotActionResult.SUCCESS;
+        }
+
+        assert step != null;
+        final RobotActionResult result = step.perform(robot);
+        if (result != RobotActionResult.SUCCESS) {
+            return result;
+        }
+
+        // Start the next step right away, so paths move as fast as individually queued steps.
+        step = null;
+        return beginNextStep(robot) ? RobotActionResult.INCOMPLETE : RobotActionResult.SUCCESS;
+    }
+
+    @Override
+    public CompoundNBT serialize() {
+        final CompoundNBT tag = super.serialize();
+
+        final ListNBT stepsTag = new ListNBT();
+        for (final AbstractRobotAction step : steps) {
+            stepsTag.add(RobotActions.serialize(step));
+        }
+        tag.put(STEPS_TAG_NAME, stepsTag);
+
+        if (step != null) {
+            tag.put(STEP_TAG_NAME, RobotActions.serialize(step));
+        }
+
+        return tag;
+    }
+
+    @Override
+    public void deserialize(final CompoundNBT tag) {
+        super.deserialize(tag);
+
+        steps.clear();
+        final ListNBT stepsTag = tag.getList(STEPS_TAG_NAME, NBTTagIds.TAG_COMPOUND);
+        for (int i = 0; i < Math.min(stepsTag.size(), MAX_PATH_LENGTH); i++) {
+            final AbstractRobotAction step = RobotActions.deserialize(stepsTag.getCompound(i));
+            if (step != null && !(step instanceof RobotPathAction)) {
+                steps.add(step);
+            }
+        }
+
+        step = RobotActions.deserialize(tag.getCompound(STEP_TAG_NAME));
+        if (step instanceof RobotPathAction) {
+            step = null;
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static AbstractRobotAction parseStep(final String value) {
+        for (final MovementDirection direction : MovementDirection.values()) {
+            if (direction.name().equals(value)) {
+                return new RobotMovementAction(direction);
+            }
+        }
+
+        for (final RotationDirection direction : RotationDirection.values()) {
+            if (direction.name().equals(value)) {
+                return new RobotRotationAction(direction);
+            }
+        }
+
+        throw new IllegalArgumentException("invalid path step: " + value);
+    }
+
+    private boolean beginNextStep(final RobotEntity robot) {
+        step = steps.poll();
+        if (step == null) {
+            return false;
+        }
+
+        step.initialize(robot);
+        return true;
+    }
+}
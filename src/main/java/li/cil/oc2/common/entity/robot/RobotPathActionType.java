@@ -0,0 +1,16 @@
+package li.cil.oc2.common.entity.robot;
+
+import net.minecraft.nbt.CompoundNBT;
+
+public final class RobotPathActionType extends AbstractRobotActionType {
+    public RobotPathActionType(final int id) {
+        super(id);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    public AbstractRobotAction deserialize(final CompoundNBT tag) {
+        return new RobotPathAction(tag);
+    }
+}
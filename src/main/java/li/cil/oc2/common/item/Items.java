@@ -66,6 +66,7 @@ public final class Items {
     public static final RegistryObject<Item> NETWORK_INTERFACE_CARD = register("network_interface_card");
     public static final RegistryObject<Item> FILE_IMPORT_EXPORT_CARD = register("file_import_export_card");
     public static final RegistryObject<Item> SOUND_CARD = register("sound_card");
+    public static final RegistryObject<Item> SHARED_FOLDER_CARD = register("shared_folder_card");
 
     public static final RegistryObject<Item> INVENTORY_OPERATIONS_MODULE = register("inventory_operations_module");
     public static final RegistryObject<Item> BLOCK_OPERATIONS_MODULE = register("block_operations_module", BlockOperationsModule::new);
@@ -15,7 +15,7 @@ import net.minecraftforge.fml.network.simple.SimpleChannel;
 import java.util.function.Function;
 
 public final class Network {
-    private static final String PROTOCOL_VERSION = "1";
+    private static final String PROTOCOL_VERSION = "2";
 
     public static final SimpleChannel INSTANCE = NetworkRegistry.newSimpleChannel(
             new ResourceLocation(API.MOD_ID, "main"),
@@ -59,8 +59,11 @@ public final class Network {
         registerMessage(BusInterfaceNameMessage.ToServer.class, BusInterfaceNameMessage.ToServer::new, NetworkDirection.PLAY_TO_SERVER);
 
         registerMessage(ExportedFileMessage.class, ExportedFileMessage::new, NetworkDirection.PLAY_TO_CLIENT);
+        registerMessage(ExportedFileDataMessage.class, ExportedFileDataMessage::new, NetworkDirection.PLAY_TO_CLIENT);
         registerMessage(RequestImportedFileMessage.class, RequestImportedFileMessage::new, NetworkDirection.PLAY_TO_CLIENT);
         registerMessage(ImportedFileMessage.class, ImportedFileMessage::new, NetworkDirection.PLAY_TO_SERVER);
+        registerMessage(ImportedFileDataMessage.class, ImportedFileDataMessage::new, NetworkDirection.PLAY_TO_SERVER);
+        registerMessage(RequestImportedFileDataMessage.class, RequestImportedFileDataMessage::new, NetworkDirection.PLAY_TO_CLIENT);
         registerMessage(ServerCanceledImportFileMessage.class, ServerCanceledImportFileMessage::new, NetworkDirection.PLAY_TO_CLIENT);
         registerMessage(ClientCanceledImportFileMessage.class, ClientCanceledImportFileMessage::new, NetworkDirection.PLAY_TO_SERVER);
 
@@ -4,8 +4,6 @@ import li.cil.oc2.common.bus.device.item.FileImportExportCardItemDevice;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 
-import java.util.function.Supplier;
-
 public final class ClientCanceledImportFileMessage extends AbstractMessage {
     private int id;
 
@@ -34,7 +32,7 @@ public final class ClientCanceledImportFileMessage extends AbstractMessage {
     ///////////////////////////////////////////////////////////////////
 
     @Override
-    protected void handleMessage(final Supplier<NetworkEvent.Context> context) {
-        FileImportExportCardItemDevice.cancelImport(context.get().getSender(), id);
+    protected void handleMessage(final NetworkEvent.Context context) {
+        FileImportExportCardItemDevice.cancelImport(context.getSender(), id);
     }
 }
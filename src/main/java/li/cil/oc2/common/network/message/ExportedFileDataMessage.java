@@ -0,0 +1,43 @@
+package li.cil.oc2.common.network.message;
+
+import li.cil.oc2.client.FileTransfers;
+import li.cil.oc2.common.bus.device.item.FileImportExportCardItemDevice;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+public final class ExportedFileDataMessage extends AbstractMessage {
+    private int id;
+    private byte[] data;
+
+    ///////////////////////////////////////////////////////////////////
+
+    public ExportedFileDataMessage(final int id, final byte[] data) {
+        this.id = id;
+        this.data = data;
+    }
+
+    public ExportedFileDataMessage(final PacketBuffer buffer) {
+        super(buffer);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    public void fromBytes(final PacketBuffer buffer) {
+        id = buffer.readVarInt();
+        data = buffer.readByteArray(FileImportExportCardItemDevice.EXPORT_CHUNK_SIZE);
+    }
+
+    @Override
+    public void toBytes(final PacketBuffer buffer) {
+        buffer.writeVarInt(id);
+        buffer.writeByteArray(data);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    protected void handleMessage(final NetworkEvent.Context context) {
+        FileTransfers.addExportedFileData(id, data);
+    }
+}
@@ -1,27 +1,20 @@
 package li.cil.oc2.common.network.message;
 
-import li.cil.oc2.client.gui.FileChooserScreen;
+import li.cil.oc2.client.FileTransfers;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
-import java.io.IOException;
-import java.nio.file.Files;
 
 public final class ExportedFileMessage extends AbstractMessage {
-    private static final Logger LOGGER = LogManager.getLogger();
-
-    ///////////////////////////////////////////////////////////////////
-
+    private int id;
     private String name;
-    private byte[] data;
+    private int size;
 
     ///////////////////////////////////////////////////////////////////
 
-    public ExportedFileMessage(final String name, final byte[] data) {
+    public ExportedFileMessage(final int id, final String name, final int size) {
+        this.id = id;
         this.name = name;
-        this.data = data;
+        this.size = size;
     }
 
     public ExportedFileMessage(final PacketBuffer buffer) {
@@ -32,25 +25,22 @@ public final class ExportedFileMessage extends AbstractMessage {
 
     @Override
     public void fromBytes(final PacketBuffer buffer) {
+        id = buffer.readVarInt();
         name = buffer.readUtf();
-        data = buffer.readByteArray();
+        size = buffer.readVarInt();
     }
 
     @Override
     public void toBytes(final PacketBuffer buffer) {
+        buffer.writeVarInt(id);
         buffer.writeUtf(name);
-        buffer.writeByteArray(data);
+        buffer.writeVarInt(size);
     }
 
     ///////////////////////////////////////////////////////////////////
 
+    @Override
     protected void handleMessage(final NetworkEvent.Context context) {
-        FileChooserScreen.openFileChooserForSave(name, path -> {
-            try {
-                Files.write(path, data);
-            } catch (final IOException e) {
-                LOGGER.error(e);
-            }
-        });
+        FileTransfers.beginExportedFile(id, name, size);
     }
 }
@@ -0,0 +1,42 @@
+package li.cil.oc2.common.network.message;
+
+import li.cil.oc2.common.bus.device.item.FileImportExportCardItemDevice;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+public final class ImportedFileDataMessage extends AbstractMessage {
+    private int id;
+    private byte[] data;
+
+    ///////////////////////////////////////////////////////////////////
+
+    public ImportedFileDataMessage(final int id, final byte[] data) {
+        this.id = id;
+        this.data = data;
+    }
+
+    public ImportedFileDataMessage(final PacketBuffer buffer) {
+        super(buffer);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    public void fromBytes(final PacketBuffer buffer) {
+        id = buffer.readVarInt();
+        data = buffer.readByteArray(FileImportExportCardItemDevice.IMPORT_CHUNK_SIZE);
+    }
+
+    @Override
+    public void toBytes(final PacketBuffer buffer) {
+        buffer.writeVarInt(id);
+        buffer.writeByteArray(data);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    protected void handleMessage(final NetworkEvent.Context context) {
+        FileImportExportCardItemDevice.addImportedFileData(context.getSender(), id, data);
+    }
+}
@@ -4,8 +4,6 @@ import li.cil.oc2.common.bus.device.item.FileImportExportCardItemDevice;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 
-import java.util.function.Supplier;
-
 public final class ImportedFileMessage extends AbstractMessage {
     private static final int MAX_NAME_LENGTH = 256;
 
@@ -13,14 +11,14 @@ public final class ImportedFileMessage extends AbstractMessage {
 
     private int id;
     private String name;
-    private byte[] data;
+    private int size;
 
     ///////////////////////////////////////////////////////////////////
 
-    public ImportedFileMessage(final int id, final String name, final byte[] data) {
+    public ImportedFileMessage(final int id, final String name, final int size) {
         this.id = id;
         this.name = name;
-        this.data = data;
+        this.size = size;
     }
 
     public ImportedFileMessage(final PacketBuffer buffer) {
@@ -33,20 +31,20 @@ public final class ImportedFileMessage extends AbstractMessage {
     public void fromBytes(final PacketBuffer buffer) {
         id = buffer.readVarInt();
         name = buffer.readUtf(MAX_NAME_LENGTH);
-        data = buffer.readByteArray();
+        size = buffer.readVarInt();
     }
 
     @Override
     public void toBytes(final PacketBuffer buffer) {
         buffer.writeVarInt(id);
         buffer.writeUtf(name, MAX_NAME_LENGTH);
-        buffer.writeByteArray(data);
+        buffer.writeVarInt(size);
     }
 
     ///////////////////////////////////////////////////////////////////
 
     @Override
-    protected void handleMessage(final Supplier<NetworkEvent.Context> context) {
-        FileImportExportCardItemDevice.setImportedFile(id, name, data);
+    protected void handleMessage(final NetworkEvent.Context context) {
+        FileImportExportCardItemDevice.setImportedFile(context.getSender(), id, name, size);
     }
 }
@@ -0,0 +1,42 @@
+package li.cil.oc2.common.network.message;
+
+import li.cil.oc2.client.FileTransfers;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+public final class RequestImportedFileDataMessage extends AbstractMessage {
+    private int id;
+    private int count;
+
+    ///////////////////////////////////////////////////////////////////
+
+    public RequestImportedFileDataMessage(final int id, final int count) {
+        this.id = id;
+        this.count = count;
+    }
+
+    public RequestImportedFileDataMessage(final PacketBuffer buffer) {
+        super(buffer);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    public void fromBytes(final PacketBuffer buffer) {
+        id = buffer.readVarInt();
+        count = buffer.readVarInt();
+    }
+
+    @Override
+    public void toBytes(final PacketBuffer buffer) {
+        buffer.writeVarInt(id);
+        buffer.writeVarInt(count);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    protected void handleMessage(final NetworkEvent.Context context) {
+        FileTransfers.sendImportedFileData(id, count);
+    }
+}
@@ -1,11 +1,9 @@
 package li.cil.oc2.common.network.message;
 
-import li.cil.oc2.common.bus.device.item.FileImportExportCardItemDevice;
+import li.cil.oc2.client.FileTransfers;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 
-import java.util.function.Supplier;
-
 public final class ServerCanceledImportFileMessage extends AbstractMessage {
     private int id;
 
@@ -34,7 +32,7 @@ public final class ServerCanceledImportFileMessage extends AbstractMessage {
     ///////////////////////////////////////////////////////////////////
 
     @Override
-    protected void handleMessage(final Supplier<NetworkEvent.Context> context) {
-        FileImportExportCardItemDevice.cancelImport(context.get().getSender(), id);
+    protected void handleMessage(final NetworkEvent.Context context) {
+        FileTransfers.cancelImport(id);
     }
 }
@@ -1,6 +1,7 @@
 package li.cil.oc2.common.serialization;
 
 import li.cil.oc2.api.API;
+import li.cil.oc2.common.Config;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.storage.FolderName;
 import org.apache.logging.log4j.LogManager;
@@ -9,15 +10,31 @@ import org.apache.logging.log4j.Logger;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.*;
 
 /**
  * This class facilitates storing binary chunks of data in an efficient, parallelized fashion.
+ * <p>
+ * Blobs mapped into memory via {@link #map(UUID, long)} are written back to disk by a background
+ * flusher. Users of such mappings should call {@link #markDirty(UUID, long, long)} after modifying
+ * them, or {@link #markDirty(UUID)} if the modified region is unknown. Dirty mappings are forced
+ * incrementally, limited by {@link Config#blobFlushBytesPerSecond}, which is charged the size of
+ * the dirty region of each forced mapping. Only when the server stops all dirty mappings are
+ * forced at once.
+ * <p>
+ * Small blobs that are always replaced as a whole can be written via {@link #write(UUID, byte[])}.
+ * These writes happen on the flusher thread, and replace the blob atomically.
  */
 public final class BlobStorage {
     private static final Logger LOGGER = LogManager.getLogger();
@@ -27,7 +44,25 @@ public final class BlobStorage {
     private static final FolderName BLOBS_FOLDER_NAME = new FolderName(API.MOD_ID + "-blobs");
     private static final Map<UUID, FileChannel> BLOBS = new HashMap<>();
 
+    private static final int FLUSH_INTERVAL_IN_MS = 1000;
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "Blob Storage Flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Written to from VM runner threads, so these must be thread-safe.
+    private static final Map<UUID, MappedBlob> MAPPED_BLOBS = new ConcurrentHashMap<>();
+    private static final Queue<MappedBlob> DIRTY_BLOBS = new ConcurrentLinkedQueue<>();
+
+    // Data of pending whole blob writes, by handle. Reads are served from here until written.
+    private static final Map<UUID, byte[]> PENDING_WRITES = new ConcurrentHashMap<>();
+
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
     private static Path dataDirectory; // Directory blobs get saved to.
+    @Nullable private static ScheduledFuture<?> flushTask;
+    private static long flushBudget; // Only accessed on the flusher thread.
 
     ///////////////////////////////////////////////////////////////////
 
@@ -47,12 +82,34 @@ public final class BlobStorage {
         } catch (final IOException e) {
             LOGGER.error(e);
         }
+
+        if (flushTask == null) {
+            flushTask = FLUSHER.scheduleWithFixedDelay(BlobStorage::flushDirtyBlobs,
+                    FLUSH_INTERVAL_IN_MS, FLUSH_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
      * Closes all currently open blobs.
+     * <p>
+     * All dirty memory mapped blobs and pending writes are written back before this returns.
      */
     public static void close() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+
+        try {
+            FLUSHER.submit(BlobStorage::flushAllDirtyBlobs).get();
+        } catch (final InterruptedException | ExecutionException e) {
+            LOGGER.error(e);
+        }
+
+        MAPPED_BLOBS.clear();
+        DIRTY_BLOBS.clear();
+        PENDING_WRITES.clear();
+
         for (final FileChannel blob : BLOBS.values()) {
             try {
                 blob.close();
@@ -64,6 +121,20 @@ public final class BlobStorage {
         BLOBS.clear();
     }
 
+    /**
+     * Requests dirty memory mapped blobs to be written back without waiting for the next
+     * scheduled flush.
+     * <p>
+     * This is called when the world gets saved, so that blob contents catch up with the state
+     * serialized alongside them as soon as possible. The configured budget still applies, so a
+     * save does not force all mappings at once. Blobs exceeding the budget are picked up by
+     * subsequent scheduled flushes. Writing happens on the flusher thread, so this does not block
+     * the caller.
+     */
+    public static void requestFlush() {
+        FLUSHER.execute(BlobStorage::flushDirtyBlobsWithinBudget);
+    }
+
     /**
      * Allocates a new handle for a blob to store.
      * <p>
@@ -110,35 +181,265 @@ public final class BlobStorage {
         return blob;
     }
 
+    /**
+     * Replaces the contents of the blob with the specified handle.
+     * <p>
+     * The data is written to a temporary file on the flusher thread, which then atomically
+     * replaces the blob. A crash while writing thus leaves either the old or the new contents.
+     * Until the write has completed, {@link #read(UUID)} returns the new contents.
+     * <p>
+     * The blob must not be opened or mapped using other methods of this class.
+     *
+     * @param handle the handle of the blob to write.
+     * @param data   the new contents of the blob. Must not be modified after this call.
+     */
+    public static void write(final UUID handle, final byte[] data) {
+        final Path path = dataDirectory.resolve(handle.toString());
+        PENDING_WRITES.put(handle, data);
+        FLUSHER.execute(() -> {
+            // Later writes may have replaced the data, then we write the latest data right away,
+            // and the tasks of later writes will find nothing left to do.
+            final byte[] pendingData = PENDING_WRITES.get(handle);
+            if (pendingData == null) {
+                return;
+            }
+
+            try {
+                final Path temporaryPath = path.resolveSibling(path.getFileName() + TEMPORARY_FILE_SUFFIX);
+                Files.write(temporaryPath, pendingData);
+                try {
+                    Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (final AtomicMoveNotSupportedException e) {
+                    Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (final IOException e) {
+                LOGGER.error(e);
+            } finally {
+                PENDING_WRITES.remove(handle, pendingData);
+            }
+        });
+    }
+
+    /**
+     * Reads the contents of the blob with the specified handle, including pending writes.
+     *
+     * @param handle the handle of the blob to read.
+     * @return the contents of the blob; empty if the blob does not exist.
+     * @throws IOException if reading the blob fails.
+     */
+    public static byte[] read(final UUID handle) throws IOException {
+        final byte[] pendingData = PENDING_WRITES.get(handle);
+        if (pendingData != null) {
+            return pendingData;
+        }
+
+        try {
+            return Files.readAllBytes(dataDirectory.resolve(handle.toString()));
+        } catch (final NoSuchFileException e) {
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Maps the blob with the specified handle into memory.
+     * <p>
+     * The mapping is registered with the background flusher. Call {@link #markDirty(UUID)} after
+     * writing to the returned buffer to have it written back to disk eventually.
+     *
+     * @param handle the handle of the blob to map.
+     * @param size   the size of the mapped region, starting at the beginning of the blob.
+     * @return the mapped buffer.
+     * @throws IOException if opening or mapping the blob fails.
+     */
+    public static MappedByteBuffer map(final UUID handle, final long size) throws IOException {
+        final FileChannel channel = getOrOpen(handle);
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        MAPPED_BLOBS.put(handle, new MappedBlob(buffer));
+        return buffer;
+    }
+
+    /**
+     * Marks the memory mapped blob with the specified handle as modified as a whole.
+     * <p>
+     * Prefer {@link #markDirty(UUID, long, long)} where the modified region is known.
+     *
+     * @param handle the handle of the modified blob.
+     */
+    public static void markDirty(final UUID handle) {
+        markDirty(handle, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Marks a region of the memory mapped blob with the specified handle as modified.
+     * <p>
+     * This is cheap and safe to call from any thread, and does nothing if the blob is not mapped.
+     *
+     * @param handle the handle of the modified blob.
+     * @param offset the offset of the modified region.
+     * @param length the length of the modified region.
+     */
+    public static void markDirty(final UUID handle, final long offset, final long length) {
+        final MappedBlob blob = MAPPED_BLOBS.get(handle);
+        if (blob != null && blob.markDirty(offset, length)) {
+            DIRTY_BLOBS.add(blob);
+        }
+    }
+
     /**
      * Closes the blob with the specified handle.
+     * <p>
+     * If the blob is mapped and dirty, it is written back and closed asynchronously.
      *
      * @param handle the handle of the blob to close.
      */
     public static void close(final UUID handle) {
-        try {
-            final FileChannel blob = BLOBS.remove(handle);
-            if (blob != null) {
-                blob.close();
-            }
-        } catch (final IOException e) {
-            LOGGER.error(e);
+        final MappedBlob mappedBlob = MAPPED_BLOBS.remove(handle);
+        final FileChannel blob = BLOBS.remove(handle);
+        if (mappedBlob != null && mappedBlob.isDirty()) {
+            FLUSHER.execute(() -> {
+                mappedBlob.force();
+                closeChannel(blob);
+            });
+        } else {
+            closeChannel(blob);
         }
     }
 
     /**
      * Deletes the blob with the specified handle.
+     * <p>
+     * Pending changes to a memory mapped blob are discarded.
      *
      * @param handle the handle of the blob to delete.
      */
     public static void delete(final UUID handle) {
-        close(handle);
+        final MappedBlob mappedBlob = MAPPED_BLOBS.remove(handle);
+        if (mappedBlob != null) {
+            mappedBlob.clearDirty();
+        }
+
+        closeChannel(BLOBS.remove(handle));
+
+        // Delete on the flusher thread, so a write already in progress cannot bring back the blob.
+        PENDING_WRITES.remove(handle);
+        final Path path = dataDirectory.resolve(handle.toString());
+        FLUSHER.execute(() -> {
+            try {
+                Files.deleteIfExists(path);
+                Files.deleteIfExists(path.resolveSibling(path.getFileName() + TEMPORARY_FILE_SUFFIX));
+            } catch (final Throwable e) {
+                LOGGER.error(e);
+            }
+        });
+    }
+
+    ///////////////////////////////////////////////////////////////////
 
+    private static void closeChannel(@Nullable final FileChannel blob) {
         try {
-            final Path path = dataDirectory.resolve(handle.toString());
-            Files.deleteIfExists(path);
-        } catch (final Throwable e) {
+            if (blob != null) {
+                blob.close();
+            }
+        } catch (final IOException e) {
             LOGGER.error(e);
         }
     }
+
+    private static void flushDirtyBlobs() {
+        // Overspent budget carries over, so large blobs are paid off over multiple intervals.
+        final long budgetPerInterval = (long) Config.blobFlushBytesPerSecond * FLUSH_INTERVAL_IN_MS / 1000;
+        flushBudget = Math.min(flushBudget + budgetPerInterval, budgetPerInterval);
+        flushDirtyBlobsWithinBudget();
+    }
+
+    private static void flushDirtyBlobsWithinBudget() {
+        MappedBlob blob;
+        while (flushBudget > 0 && (blob = DIRTY_BLOBS.poll()) != null) {
+            flushBudget -= blob.force();
+        }
+    }
+
+    private static void flushAllDirtyBlobs() {
+        MappedBlob blob;
+        while ((blob = DIRTY_BLOBS.poll()) != null) {
+            blob.force();
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    /**
+     * A memory mapped blob and the region of it modified since it was last forced.
+     * <p>
+     * Mapped buffers can only be forced as a whole, but only modified pages actually get written,
+     * so the size of the dirty region is what a force costs.
+     */
+    private static final class MappedBlob {
+        public final MappedByteBuffer buffer;
+        private long dirtyStart, dirtyEnd; // guarded by this, empty if start >= end
+
+        private MappedBlob(final MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Extends the dirty region to include the specified region.
+         *
+         * @param offset the offset of the modified region.
+         * @param length the length of the modified region.
+         * @return {@code true} if the blob was clean before; {@code false} otherwise.
+         */
+        public synchronized boolean markDirty(final long offset, final long length) {
+            final long capacity = buffer.capacity();
+            final long start = Math.max(0, Math.min(offset, capacity));
+            final long end = length > capacity - start ? capacity : start + Math.max(0, length);
+            if (start >= end) {
+                return false;
+            }
+
+            final boolean wasClean = dirtyStart >= dirtyEnd;
+            if (wasClean) {
+                dirtyStart = start;
+                dirtyEnd = end;
+            } else {
+                dirtyStart = Math.min(dirtyStart, start);
+                dirtyEnd = Math.max(dirtyEnd, end);
+            }
+            return wasClean;
+        }
+
+        public synchronized boolean isDirty() {
+            return dirtyStart < dirtyEnd;
+        }
+
+        public synchronized void clearDirty() {
+            dirtyStart = dirtyEnd = 0;
+        }
+
+        /**
+         * Writes back the mapped buffer if it is dirty.
+         *
+         * @return the size of the region written back.
+         */
+        public long force() {
+            // Clear region first, so writes happening while we force mark it dirty again.
+            final long dirtySize;
+            synchronized (this) {
+                dirtySize = dirtyEnd - dirtyStart;
+                dirtyStart = dirtyEnd = 0;
+            }
+
+            if (dirtySize <= 0) {
+                return 0;
+            }
+
+            try {
+                buffer.force();
+            } catch (final Throwable e) {
+                LOGGER.error(e);
+            }
+
+            return dirtySize;
+        }
+    }
 }
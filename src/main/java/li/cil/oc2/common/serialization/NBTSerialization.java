@@ -17,7 +17,7 @@ import java.util.UUID;
 
 public final class NBTSerialization {
     public static <T> void serialize(final CompoundNBT tag, final T value, final Class<T> type) throws SerializationException {
-        Ceres.getSerializer(type).serialize(new Serializer(tag), type, value);
+        getSerializer(type).serialize(new Serializer(tag), type, value);
     }
 
     public static <T> void serialize(final CompoundNBT tag, final T value) throws SerializationException {
@@ -38,7 +38,7 @@ public final class NBTSerialization {
     }
 
     public static <T> T deserialize(final CompoundNBT tag, final Class<T> type, @Nullable final T into) throws SerializationException {
-        return Ceres.getSerializer(type).deserialize(new Deserializer(tag), type, into);
+        return getSerializer(type).deserialize(new Deserializer(tag), type, into);
     }
 
     public static <T> T deserialize(final CompoundNBT tag, final Class<T> type) throws SerializationException {
@@ -55,6 +55,15 @@ public final class NBTSerialization {
     private static final String IS_NULL_KEY = "<is_null>";
     private static final Map<Class<?>, ArraySerializer> ARRAY_SERIALIZERS;
 
+    // Serializers for nested objects are looked up for each field of each serialized object,
+    // so we keep them in a per-class cache to make repeated lookups cheap.
+    private static final ClassValue<li.cil.ceres.api.Serializer<?>> SERIALIZERS = new ClassValue<li.cil.ceres.api.Serializer<?>>() {
+        @Override
+        protected li.cil.ceres.api.Serializer<?> computeValue(final Class<?> type) {
+            return Ceres.getSerializer(type);
+        }
+    };
+
     static {
         ARRAY_SERIALIZERS = new HashMap<>();
         ARRAY_SERIALIZERS.put(boolean.class, new BooleanArraySerializer());
@@ -70,6 +79,17 @@ public final class NBTSerialization {
         ARRAY_SERIALIZERS.put(UUID.class, new UUIDArraySerializer());
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> li.cil.ceres.api.Serializer<T> getSerializer(final Class<T> type) {
+        return (li.cil.ceres.api.Serializer<T>) SERIALIZERS.get(type);
+    }
+
+    @Nullable
+    private static ArraySerializer getArraySerializer(final Class<?> componentType) {
+        // Enum arrays have their concrete enum type as component type, never Enum itself.
+        return ARRAY_SERIALIZERS.get(componentType.isEnum() ? Enum.class : componentType);
+    }
+
     private static final class Serializer implements SerializationVisitor {
         private final CompoundNBT tag;
 
@@ -136,7 +156,7 @@ public final class NBTSerialization {
                 tag.put(name, uuidTag);
             } else {
                 final CompoundNBT valueTag = new CompoundNBT();
-                Ceres.getSerializer(type).serialize(new Serializer(valueTag), (Class) type, value);
+                getSerializer(type).serialize(new Serializer(valueTag), (Class) type, value);
                 if (!valueTag.isEmpty()) {
                     tag.put(name, valueTag);
                 }
@@ -152,7 +172,7 @@ public final class NBTSerialization {
         private INBT putArray(final String name, final Class<?> type, final Object value) {
             final Class<?> componentType = type.getComponentType();
 
-            final ArraySerializer arraySerializer = ARRAY_SERIALIZERS.get(componentType);
+            final ArraySerializer arraySerializer = getArraySerializer(componentType);
             if (arraySerializer != null) {
                 return arraySerializer.serialize(value);
             } else {
@@ -160,7 +180,7 @@ public final class NBTSerialization {
                 if (componentType.isArray()) {
                     componentSerializer = (t, v) -> putArray(name, t, v);
                 } else {
-                    final li.cil.ceres.api.Serializer<?> serializer = Ceres.getSerializer(componentType);
+                    final li.cil.ceres.api.Serializer<?> serializer = getSerializer(componentType);
                     componentSerializer = (t, v) -> {
                         final CompoundNBT tag = new CompoundNBT();
                         serializer.serialize(new Serializer(tag), (Class) t, v);
@@ -280,7 +300,7 @@ public final class NBTSerialization {
                 return tag.getCompound(name).getUUID(name);
             } else {
                 final CompoundNBT valueTag = tag.getCompound(name);
-                return Ceres.getSerializer(type).deserialize(new Deserializer(valueTag), (Class) type, into);
+                return getSerializer(type).deserialize(new Deserializer(valueTag), (Class) type, into);
             }
         }
 
@@ -295,7 +315,7 @@ public final class NBTSerialization {
         private static Object getArray(final INBT tag, final Class<?> type, final @Nullable Object into) {
             final Class<?> componentType = type.getComponentType();
 
-            final ArraySerializer arraySerializer = ARRAY_SERIALIZERS.get(componentType);
+            final ArraySerializer arraySerializer = getArraySerializer(componentType);
             if (arraySerializer != null) {
                 return arraySerializer.deserialize(tag, type, into);
             } else {
@@ -303,7 +323,7 @@ public final class NBTSerialization {
                 if (componentType.isArray()) {
                     componentDeserializer = Deserializer::getArray;
                 } else {
-                    final li.cil.ceres.api.Serializer<?> serializer = Ceres.getSerializer(componentType);
+                    final li.cil.ceres.api.Serializer<?> serializer = getSerializer(componentType);
                     componentDeserializer = (n, t, i) -> serializer.deserialize(new Deserializer((CompoundNBT) n), (Class) t, i);
                 }
 
@@ -564,12 +584,14 @@ public final class NBTSerialization {
 
     @SuppressWarnings("rawtypes")
     private static final class EnumArraySerializer implements ArraySerializer {
+        private static final int NULL_ORDINAL = -1;
+
         @Override
         public INBT serialize(final Object value) {
             final Enum[] data = (Enum[]) value;
             final int[] convertedData = new int[data.length];
             for (int i = 0; i < data.length; i++) {
-                convertedData[i] = data[i].ordinal();
+                convertedData[i] = data[i] != null ? data[i].ordinal() : NULL_ORDINAL;
             }
             return new IntArrayNBT(convertedData);
         }
@@ -586,7 +608,9 @@ public final class NBTSerialization {
                     data = (Enum[]) Array.newInstance(componentType, serializedData.length);
                 }
                 for (int i = 0; i < serializedData.length; i++) {
-                    data[i] = (Enum) enumConstants[serializedData[i]];
+                    // Unknown ordinals may stem from enum constants having been removed.
+                    final int ordinal = serializedData[i];
+                    data[i] = ordinal >= 0 && ordinal < enumConstants.length ? (Enum) enumConstants[ordinal] : null;
                 }
             }
             return data;
@@ -0,0 +1,22 @@
+package li.cil.oc2.common.serialization.serializers;
+
+import com.google.gson.*;
+import li.cil.oc2.common.bus.RPCDeviceBusAdapter;
+
+import java.lang.reflect.Type;
+
+public final class EventJsonSerializer implements JsonSerializer<RPCDeviceBusAdapter.Event> {
+    @Override
+    public JsonElement serialize(final RPCDeviceBusAdapter.Event src, final Type typeOfSrc, final JsonSerializationContext context) {
+        if (src == null) {
+            return JsonNull.INSTANCE;
+        }
+
+        final JsonObject eventJson = new JsonObject();
+        eventJson.add("deviceId", context.serialize(src.deviceId));
+        eventJson.addProperty("name", src.name);
+        eventJson.add("data", context.serialize(src.data));
+
+        return eventJson;
+    }
+}
@@ -7,16 +7,54 @@ import com.google.gson.JsonSerializer;
 import li.cil.oc2.common.bus.device.rpc.RPCItemStackTagFilters;
 import li.cil.oc2.common.serialization.NBTToJsonConverter;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
 
 import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public final class ItemStackJsonSerializer implements JsonSerializer<ItemStack> {
+    private static final int MAX_CACHED_STACKS = 512;
+
+    // Programs monitoring inventories tend to fetch the same stacks over and over again.
+    // Filtering and converting tags is a lot more expensive than comparing them, so we
+    // keep the results for recently serialized stacks around, keyed by their full tag.
+    // Entries must not be modified, they are only ever written out by Gson.
+    private static final LinkedHashMap<CompoundNBT, JsonElement> CACHE = new LinkedHashMap<CompoundNBT, JsonElement>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<CompoundNBT, JsonElement> eldest) {
+            return size() > MAX_CACHED_STACKS;
+        }
+    };
+
+    ///////////////////////////////////////////////////////////////////
+
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
     @Override
     public JsonElement serialize(final ItemStack src, final Type typeOfSrc, final JsonSerializationContext context) {
         if (src == null || src.isEmpty()) {
             return JsonNull.INSTANCE;
         }
 
-        return NBTToJsonConverter.convert(RPCItemStackTagFilters.getFilteredTag(src, src.serializeNBT()));
+        // The serialized tag is freshly created, so it is safe to use it as a key.
+        final CompoundNBT tag = src.serializeNBT();
+        synchronized (CACHE) {
+            final JsonElement cached = CACHE.get(tag);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final JsonElement json = NBTToJsonConverter.convert(RPCItemStackTagFilters.getFilteredTag(src, tag));
+        synchronized (CACHE) {
+            CACHE.put(tag, json);
+        }
+
+        return json;
     }
 }
@@ -13,11 +13,14 @@ public final class MessageJsonDeserializer implements JsonDeserializer<RPCDevice
         final String messageType = jsonObject.get("type").getAsString();
         final Object messageData;
         switch (messageType) {
-            case RPCDeviceBusAdapter.Message.MESSAGE_TYPE_LIST: {
+            case RPCDeviceBusAdapter.Message.MESSAGE_TYPE_LIST:
+            case RPCDeviceBusAdapter.Message.MESSAGE_TYPE_EVENTS: {
                 messageData = null;
                 break;
             }
-            case RPCDeviceBusAdapter.Message.MESSAGE_TYPE_METHODS: {
+            case RPCDeviceBusAdapter.Message.MESSAGE_TYPE_METHODS:
+            case RPCDeviceBusAdapter.Message.MESSAGE_TYPE_SUBSCRIBE:
+            case RPCDeviceBusAdapter.Message.MESSAGE_TYPE_UNSUBSCRIBE: {
                 messageData = UUID.fromString(jsonObject.getAsJsonPrimitive("data").getAsString());
                 break;
             }
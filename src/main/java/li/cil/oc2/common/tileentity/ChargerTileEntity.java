@@ -25,8 +25,15 @@ import java.util.List;
 import static java.util.Collections.singletonList;
 
 public final class ChargerTileEntity extends AbstractTileEntity implements ITickableTileEntity, NamedDevice {
+    // While there is nothing to charge we only look for something new to charge this often,
+    // unless woken up early, e.g. by an entity stepping on the charger or a block change.
+    private static final int IDLE_CHECK_INTERVAL = Constants.SECONDS_TO_TICKS;
+
+    ///////////////////////////////////////////////////////////////////
+
     private final FixedEnergyStorage energy = new FixedEnergyStorage(Config.chargerEnergyStorage);
     private boolean isCharging;
+    private int ticksUntilCheck;
 
     ///////////////////////////////////////////////////////////////////
 
@@ -38,9 +45,22 @@ public final class ChargerTileEntity extends AbstractTileEntity implements ITick
 
     @Override
     public void tick() {
+        if (ticksUntilCheck > 0) {
+            ticksUntilCheck--;
+            return;
+        }
+
         isCharging = false;
         chargeBlock();
         chargeEntities();
+
+        if (!isCharging) {
+            ticksUntilCheck = IDLE_CHECK_INTERVAL;
+        }
+    }
+
+    public void wake() {
+        ticksUntilCheck = 0;
     }
 
     @Override
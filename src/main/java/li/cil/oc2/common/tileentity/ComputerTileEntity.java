@@ -74,7 +74,7 @@ public final class ComputerTileEntity extends AbstractTileEntity implements ITic
     private final ComputerBusElement busElement = new ComputerBusElement();
     private final ComputerItemStackHandlers deviceItems = new ComputerItemStackHandlers();
     private final FixedEnergyStorage energy = new FixedEnergyStorage(Config.computerEnergyStorage);
-    private final ComputerVirtualMachine virtualMachine = new ComputerVirtualMachine(new TileEntityDeviceBusController(busElement, Config.computerEnergyPerTick, this), deviceItems::getDeviceAddressBase);
+    private final ComputerVirtualMachine virtualMachine = new ComputerVirtualMachine(new TileEntityDeviceBusController(busElement, Config.getCpuEnergyPerTick(Config.computerEnergyPerTick, Config.computerCpuFrequency), this), deviceItems::getDeviceAddressBase);
     private final Set<PlayerEntity> terminalUsers = Collections.newSetFromMap(new WeakHashMap<>());
 
     ///////////////////////////////////////////////////////////////////
@@ -193,13 +193,20 @@ public final class ComputerTileEntity extends AbstractTileEntity implements ITic
         // a full clean-up when we get destroyed, so stuff inside us can delete out-of-nbt
         // persisted runtime-only data such as ram.
         virtualMachine.state.vmAdapter.unmount();
+
+        if (level != null && !level.isClientSide()) {
+            virtualMachine.deleteSerializedState();
+        }
     }
 
     @Override
     public CompoundNBT getUpdateTag() {
-        final CompoundNBT tag = super.getUpdateTag();
+        // Not using super.getUpdateTag(), since that calls save(), which serializes the virtual
+        // machine and with that writes its state blob. Update tags are built on every chunk sync,
+        // and clients have no use for the virtual machine's state anyway.
+        final CompoundNBT tag = super.save(new CompoundNBT());
+        saveWithoutState(tag);
 
-        tag.put(TERMINAL_TAG_NAME, NBTSerialization.serialize(terminal));
         tag.putInt(AbstractVirtualMachine.BUS_STATE_TAG_NAME, virtualMachine.getBusState().ordinal());
         tag.putInt(AbstractVirtualMachine.RUN_STATE_TAG_NAME, virtualMachine.getRunState().ordinal());
         tag.putString(AbstractVirtualMachine.BOOT_ERROR_TAG_NAME, ITextComponent.Serializer.toJson(virtualMachine.getBootError()));
@@ -221,12 +228,8 @@ public final class ComputerTileEntity extends AbstractTileEntity implements ITic
     public CompoundNBT save(final CompoundNBT tag) {
         super.save(tag);
 
-        tag.put(ENERGY_TAG_NAME, energy.serializeNBT());
+        saveWithoutState(tag);
         tag.put(STATE_TAG_NAME, virtualMachine.serialize());
-        tag.put(TERMINAL_TAG_NAME, NBTSerialization.serialize(terminal));
-        tag.put(BUS_ELEMENT_TAG_NAME, busElement.save());
-        tag.put(ITEMS_TAG_NAME, deviceItems.saveItems());
-        tag.put(DEVICES_TAG_NAME, deviceItems.saveDevices());
 
         return tag;
     }
@@ -292,6 +295,16 @@ public final class ComputerTileEntity extends AbstractTileEntity implements ITic
 
     ///////////////////////////////////////////////////////////////////
 
+    private void saveWithoutState(final CompoundNBT tag) {
+        tag.put(ENERGY_TAG_NAME, energy.serializeNBT());
+        tag.put(TERMINAL_TAG_NAME, NBTSerialization.serialize(terminal));
+        tag.put(BUS_ELEMENT_TAG_NAME, busElement.save());
+        tag.put(ITEMS_TAG_NAME, deviceItems.saveItems());
+        tag.put(DEVICES_TAG_NAME, deviceItems.saveDevices());
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
     private final class ComputerItemStackHandlers extends AbstractVMItemStackHandlers {
         public ComputerItemStackHandlers() {
             super(
@@ -386,10 +399,21 @@ public final class ComputerTileEntity extends AbstractTileEntity implements ITic
         private Chunk chunk;
 
         private ComputerVirtualMachine(final CommonDeviceBusController busController, final BaseAddressProvider baseAddressProvider) {
-            super(busController);
+            super(busController, Config.computerCpuFrequency, Config.computerSchedulingWeight);
             state.vmAdapter.setBaseAddressProvider(baseAddressProvider);
         }
 
+        @Override
+        protected boolean canHibernate() {
+            return terminalUsers.isEmpty();
+        }
+
+        @Override
+        protected String getStatisticsDescription() {
+            final String dimension = level != null ? level.dimension().location().toString() : "unknown";
+            return "Computer at " + getBlockPos().toShortString() + " in " + dimension;
+        }
+
         @Override
         public void setRunStateClient(final VMRunState value) {
             super.setRunStateClient(value);
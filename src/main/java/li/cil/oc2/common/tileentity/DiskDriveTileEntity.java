@@ -34,7 +34,6 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
 import java.time.Duration;
 
 public final class DiskDriveTileEntity extends AbstractTileEntity {
@@ -233,7 +232,7 @@ public final class DiskDriveTileEntity extends AbstractTileEntity {
             importFromItemStack(tag);
 
             try {
-                device.setBlock(createBlockDevice());
+                setBlockDevice(createBlockDevice());
             } catch (final IOException e) {
                 LOGGER.error(e);
             }
@@ -250,7 +249,7 @@ public final class DiskDriveTileEntity extends AbstractTileEntity {
             }
 
             try {
-                device.setBlock(EMPTY_BLOCK_DEVICE);
+                setBlockDevice(EMPTY_BLOCK_DEVICE);
             } catch (final IOException e) {
                 LOGGER.error(e);
             }
@@ -270,8 +269,7 @@ public final class DiskDriveTileEntity extends AbstractTileEntity {
             }
 
             blobHandle = BlobStorage.validateHandle(blobHandle);
-            final FileChannel channel = BlobStorage.getOrOpen(blobHandle);
-            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            final MappedByteBuffer buffer = BlobStorage.map(blobHandle, capacity);
             return ByteBufferBlockDevice.wrap(buffer, false);
         }
 
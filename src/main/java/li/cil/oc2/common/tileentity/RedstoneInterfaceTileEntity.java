@@ -4,6 +4,8 @@ import li.cil.oc2.api.bus.device.object.Callback;
 import li.cil.oc2.api.bus.device.object.DocumentedDevice;
 import li.cil.oc2.api.bus.device.object.NamedDevice;
 import li.cil.oc2.api.bus.device.object.Parameter;
+import li.cil.oc2.api.bus.device.rpc.RPCEventListener;
+import li.cil.oc2.api.bus.device.rpc.RPCEventSource;
 import li.cil.oc2.api.util.Side;
 import li.cil.oc2.common.Constants;
 import li.cil.oc2.common.util.HorizontalBlockUtils;
@@ -18,10 +20,11 @@ import net.minecraft.world.World;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import static java.util.Collections.singletonList;
 
-public final class RedstoneInterfaceTileEntity extends TileEntity implements NamedDevice, DocumentedDevice {
+public final class RedstoneInterfaceTileEntity extends TileEntity implements NamedDevice, DocumentedDevice, RPCEventSource {
     private static final String OUTPUT_TAG_NAME = "output";
 
     private static final String GET_REDSTONE_INPUT = "getRedstoneInput";
@@ -29,10 +32,15 @@ public final class RedstoneInterfaceTileEntity extends TileEntity implements Nam
     private static final String SET_REDSTONE_OUTPUT = "setRedstoneOutput";
     private static final String SIDE = "side";
     private static final String VALUE = "value";
+    private static final String REDSTONE_INPUT_CHANGED = "redstone_input";
+
+    private static final Side[] SIDES = {Side.DOWN, Side.UP, Side.NORTH, Side.SOUTH, Side.WEST, Side.EAST};
 
     ///////////////////////////////////////////////////////////////////
 
     private final byte[] output = new byte[Constants.BLOCK_FACE_COUNT];
+    private final byte[] input = new byte[Constants.BLOCK_FACE_COUNT]; // last known input, for change events
+    private final CopyOnWriteArraySet<RPCEventListener> eventListeners = new CopyOnWriteArraySet<>();
 
     ///////////////////////////////////////////////////////////////////
 
@@ -56,6 +64,28 @@ public final class RedstoneInterfaceTileEntity extends TileEntity implements Nam
         System.arraycopy(serializedOutput, 0, output, 0, Math.min(serializedOutput.length, output.length));
     }
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+
+        // Start out with current inputs, so we only report actual changes.
+        for (final Side side : SIDES) {
+            input[side.get3DDataValue()] = (byte) getRedstoneInput(side);
+        }
+    }
+
+    public void handleNeighborChanged() {
+        for (final Side side : SIDES) {
+            final byte value = (byte) getRedstoneInput(side);
+            if (value != input[side.get3DDataValue()]) {
+                input[side.get3DDataValue()] = value;
+                for (final RPCEventListener listener : eventListeners) {
+                    listener.handleEvent(REDSTONE_INPUT_CHANGED, new RedstoneInputChangedEvent(side, value));
+                }
+            }
+        }
+    }
+
     public int getOutputForDirection(final Direction direction) {
         final Direction localDirection = HorizontalBlockUtils.toLocal(getBlockState(), direction);
         assert localDirection != null;
@@ -110,6 +140,16 @@ public final class RedstoneInterfaceTileEntity extends TileEntity implements Nam
         setChanged();
     }
 
+    @Override
+    public void addEventListener(final RPCEventListener listener) {
+        eventListeners.add(listener);
+    }
+
+    @Override
+    public void removeEventListener(final RPCEventListener listener) {
+        eventListeners.remove(listener);
+    }
+
     @Override
     public Collection<String> getDeviceTypeNames() {
         return singletonList("redstone");
@@ -151,4 +191,16 @@ public final class RedstoneInterfaceTileEntity extends TileEntity implements Nam
         level.updateNeighborsAt(getBlockPos(), getBlockState().getBlock());
         level.updateNeighborsAt(getBlockPos().relative(direction), getBlockState().getBlock());
     }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final class RedstoneInputChangedEvent {
+        public final Side side;
+        public final int value;
+
+        public RedstoneInputChangedEvent(final Side side, final int value) {
+            this.side = side;
+            this.value = value;
+        }
+    }
 }
@@ -27,6 +27,11 @@ public abstract class AbstractTerminalVMRunner extends VMRunner {
 
     protected abstract void sendTerminalUpdateToClient(final ByteBuffer output);
 
+    @Override
+    public boolean hasPendingInput() {
+        return super.hasPendingInput() || terminal.hasInput();
+    }
+
     ///////////////////////////////////////////////////////////////////
 
     @Override
@@ -36,6 +41,7 @@ public abstract class AbstractTerminalVMRunner extends VMRunner {
         int value;
         while ((value = terminal.readInput()) != -1) {
             inputBuffer.enqueue((byte) value);
+            markActivity();
         }
     }
 
@@ -71,6 +77,8 @@ public abstract class AbstractTerminalVMRunner extends VMRunner {
 
     private void putTerminalOutput(final ByteBuffer output) {
         if (output.hasRemaining()) {
+            statistics.addTerminalBytes(output.remaining());
+            markActivity();
             terminal.putOutput(output);
 
             output.flip();
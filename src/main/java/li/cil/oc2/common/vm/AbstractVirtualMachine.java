@@ -4,6 +4,7 @@ import li.cil.ceres.api.Serialized;
 import li.cil.oc2.api.bus.device.vm.FirmwareLoader;
 import li.cil.oc2.api.bus.device.vm.VMDeviceLoadResult;
 import li.cil.oc2.api.bus.device.vm.event.VMPausingEvent;
+import li.cil.oc2.common.Config;
 import li.cil.oc2.common.Constants;
 import li.cil.oc2.common.bus.CommonDeviceBusController;
 import li.cil.oc2.common.bus.RPCDeviceBusAdapter;
@@ -18,10 +19,12 @@ import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.fml.common.thread.EffectiveSide;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.Objects;
 
 public abstract class AbstractVirtualMachine implements VirtualMachine {
@@ -41,6 +44,8 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
     ///////////////////////////////////////////////////////////////////
 
     public final CommonDeviceBusController busController;
+    private final int cpuFrequency;
+    private final double schedulingWeight;
     private CommonDeviceBusController.BusState busState = CommonDeviceBusController.BusState.SCAN_PENDING;
     private int loadDevicesDelay;
 
@@ -54,14 +59,22 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
     }
 
     public SerializedState state = new SerializedState();
+    public final VMStatistics statistics = new VMStatistics(this::getStatisticsDescription);
+    private final VMStateBlob stateBlob = new VMStateBlob();
     public AbstractTerminalVMRunner runner;
     private VMRunState runState = VMRunState.STOPPED;
     private ITextComponent bootError;
+    final VMIdleTracker idleTracker = new VMIdleTracker();
+    private boolean isHibernating;
+    private long hibernatedCycles; // cycles we would have run while hibernating
+    private long cyclesUntilTimerInterrupt; // as of when we started hibernating
 
     ///////////////////////////////////////////////////////////////////
 
-    public AbstractVirtualMachine(final CommonDeviceBusController busController) {
+    public AbstractVirtualMachine(final CommonDeviceBusController busController, final int cpuFrequency, final double schedulingWeight) {
         this.busController = busController;
+        this.cpuFrequency = cpuFrequency;
+        this.schedulingWeight = schedulingWeight;
 
         busController.onBeforeScan.add(this::handleBeforeScan);
         busController.onAfterDeviceScan.add(this::handleAfterDeviceScan);
@@ -72,21 +85,41 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
         state.context = new GlobalVMContext(state.board, this::joinWorkerThread);
         state.builtinDevices = new BuiltinDevices(state.context);
         state.rpcAdapter = new RPCDeviceBusAdapter(state.builtinDevices.rpcSerialDevice);
+        state.rpcAdapter.setStatistics(statistics);
         state.vmAdapter = new VMDeviceBusAdapter(state.context);
 
-        state.board.getCpu().setFrequency(Constants.CPU_FREQUENCY);
+        state.board.getCpu().setFrequency(cpuFrequency);
         state.board.setBootArguments("root=/dev/vda rw");
         state.board.setStandardOutputDevice(state.builtinDevices.uart);
     }
 
     ///////////////////////////////////////////////////////////////////
 
+    public int getCpuFrequency() {
+        return cpuFrequency;
+    }
+
+    /**
+     * The share of wall time this virtual machine may use per tick, relative to the
+     * duration of a tick, in the range (0, 1]. This caps how long a runner may occupy a
+     * thread each tick. It is not a share relative to other machines: a weight of one
+     * already allows using a whole tick, so larger values would only let a single machine
+     * hold a thread for multiple ticks. Lower weights make a machine yield earlier, leaving
+     * more time to other machines under load.
+     *
+     * @return the scheduling weight of this virtual machine.
+     */
+    public double getSchedulingWeight() {
+        return schedulingWeight;
+    }
+
     public void suspend() {
         joinWorkerThread();
         state.vmAdapter.suspend();
         state.rpcAdapter.suspend();
         state.context.invalidate();
         busController.dispose();
+        statistics.unregister();
     }
 
     @Override
@@ -177,6 +210,7 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
             } catch (final Throwable e) {
                 LOGGER.error(e);
                 runner = null;
+                statistics.unregister();
             }
         }
     }
@@ -199,12 +233,14 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
     protected void stopRunnerAndReset() {
         joinWorkerThread();
         setRunState(VMRunState.STOPPED);
+        isHibernating = false;
 
         state.board.reset();
         state.rpcAdapter.reset();
         state.vmAdapter.unmount();
 
         runner = null;
+        statistics.unregister();
     }
 
     public void tick() {
@@ -224,7 +260,12 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
                 load();
                 break;
             case RUNNING:
-                run();
+                if (isHibernating) {
+                    updateHibernation();
+                } else {
+                    run();
+                    updateIdleTime();
+                }
                 break;
         }
     }
@@ -232,15 +273,24 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
     public CompoundNBT serialize() {
         joinWorkerThread();
 
-        final CompoundNBT tag = new CompoundNBT();
-
+        final CompoundNBT stateTag = new CompoundNBT();
         if (runner != null) {
-            tag.put(RUNNER_TAG_NAME, NBTSerialization.serialize(runner));
-        } else {
-            NBTUtils.putEnum(tag, RUN_STATE_TAG_NAME, runState);
+            stateTag.put(RUNNER_TAG_NAME, NBTSerialization.serialize(runner));
         }
+        stateTag.put(STATE_TAG_NAME, NBTSerialization.serialize(state));
 
-        tag.put(STATE_TAG_NAME, NBTSerialization.serialize(state));
+        final CompoundNBT tag = new CompoundNBT();
+        NBTUtils.putEnum(tag, RUN_STATE_TAG_NAME, runState);
+
+        // Runner and machine state go into a blob, to keep chunk data small. The blob is
+        // only rewritten if the state actually changed since it was last written.
+        try {
+            stateBlob.save(stateTag);
+            stateBlob.serialize(tag);
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            tag.merge(stateTag);
+        }
 
         return tag;
     }
@@ -248,22 +298,30 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
     public void deserialize(final CompoundNBT tag) {
         joinWorkerThread();
 
-        if (tag.contains(RUNNER_TAG_NAME, NBTTagIds.TAG_COMPOUND)) {
-            runner = createRunner();
-            NBTSerialization.deserialize(tag.getCompound(RUNNER_TAG_NAME), runner);
-            runState = VMRunState.LOADING_DEVICES;
-        } else {
-            runState = NBTUtils.getEnum(tag, RUN_STATE_TAG_NAME, VMRunState.class);
-            if (runState == null) {
-                runState = VMRunState.STOPPED;
-            } else if (runState == VMRunState.RUNNING) {
-                runState = VMRunState.LOADING_DEVICES;
+        stateBlob.deserialize(tag);
+
+        // Clients never run virtual machines, and have no access to blobs anyway.
+        if (stateBlob.hasHandle() && EffectiveSide.get().isServer()) {
+            try {
+                final CompoundNBT stateTag = stateBlob.load();
+                if (stateTag != null) {
+                    deserializeState(stateTag.merge(tag));
+                    return;
+                }
+            } catch (final IOException e) {
+                LOGGER.error(e);
             }
         }
 
-        if (tag.contains(STATE_TAG_NAME, NBTTagIds.TAG_COMPOUND)) {
-            NBTSerialization.deserialize(tag.getCompound(STATE_TAG_NAME), state);
-        }
+        deserializeState(tag);
+    }
+
+    /**
+     * Deletes state persisted outside of NBT. Call this when the owner of this virtual machine
+     * is destroyed for good.
+     */
+    public void deleteSerializedState() {
+        stateBlob.delete();
     }
 
     ///////////////////////////////////////////////////////////////////
@@ -272,6 +330,20 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
 
     protected abstract boolean consumeEnergy(final int amount, final boolean simulate);
 
+    /**
+     * Whether this virtual machine may currently be hibernated when idle, e.g. because
+     * nobody is looking at its terminal.
+     *
+     * @return {@code true} if the virtual machine may hibernate; {@code false} otherwise.
+     */
+    protected boolean canHibernate() {
+        return false;
+    }
+
+    protected String getStatisticsDescription() {
+        return getClass().getSimpleName();
+    }
+
     protected void handleBusStateChanged(final CommonDeviceBusController.BusState value) {
     }
 
@@ -294,6 +366,25 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
 
     ///////////////////////////////////////////////////////////////////
 
+    private void deserializeState(final CompoundNBT tag) {
+        if (tag.contains(RUNNER_TAG_NAME, NBTTagIds.TAG_COMPOUND)) {
+            runner = createRunner();
+            NBTSerialization.deserialize(tag.getCompound(RUNNER_TAG_NAME), runner);
+            runState = VMRunState.LOADING_DEVICES;
+        } else {
+            runState = NBTUtils.getEnum(tag, RUN_STATE_TAG_NAME, VMRunState.class);
+            if (runState == null) {
+                runState = VMRunState.STOPPED;
+            } else if (runState == VMRunState.RUNNING) {
+                runState = VMRunState.LOADING_DEVICES;
+            }
+        }
+
+        if (tag.contains(STATE_TAG_NAME, NBTTagIds.TAG_COMPOUND)) {
+            NBTSerialization.deserialize(tag.getCompound(STATE_TAG_NAME), state);
+        }
+    }
+
     private void load() {
         if (loadDevicesDelay > 0) {
             loadDevicesDelay--;
@@ -345,6 +436,9 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
             runner = createRunner();
         }
 
+        isHibernating = false;
+        idleTracker.reset();
+
         setRunState(VMRunState.RUNNING);
 
         // Only start running next tick. This gives loaded devices one tick to do async
@@ -371,6 +465,55 @@ public abstract class AbstractVirtualMachine implements VirtualMachine {
         runner.tick();
     }
 
+    private void updateIdleTime() {
+        final int hibernateAfterTicks = Config.hibernateAfterIdleSeconds * Constants.SECONDS_TO_TICKS;
+        if (hibernateAfterTicks <= 0 || runner == null) {
+            return;
+        }
+
+        if (idleTracker.update(runner.consumeActivity() || !canHibernate(), hibernateAfterTicks)) {
+            hibernate();
+        }
+    }
+
+    private void hibernate() {
+        // Stops scheduling the runner and releases memory mapped device data, such as RAM,
+        // until there is new input. Devices keep their state, so on wake-up we can resume
+        // with the existing runner, same as after a bus scan.
+        joinWorkerThread();
+
+        // Guests waiting for a timer that is due soon are not really idle, e.g. when sleeping
+        // in a loop. Hibernating these would only thrash device data.
+        final long cyclesUntilTimer = runner.getCyclesUntilTimerInterrupt();
+        if (cyclesUntilTimer < cpuFrequency) {
+            idleTracker.reset();
+            return;
+        }
+
+        state.vmAdapter.hibernate();
+        isHibernating = true;
+        hibernatedCycles = 0;
+        cyclesUntilTimerInterrupt = cyclesUntilTimer;
+    }
+
+    private void updateHibernation() {
+        // Guest time does not advance while hibernating, so wake up once the time the guest
+        // would have run until its timer interrupt has passed.
+        hibernatedCycles += runner != null ? runner.getCyclesPerTick() : 0;
+        if (runner == null || runner.hasPendingInput() || !canHibernate() ||
+            hibernatedCycles >= cyclesUntilTimerInterrupt) {
+            // Catch up on the time the guest slept through, so its clock does not fall behind
+            // and its timer fires when it was due, not a full interval after waking up.
+            if (runner != null) {
+                runner.skipCycles(Math.min(hibernatedCycles, cyclesUntilTimerInterrupt));
+            }
+
+            // Don't use the setter, we don't want to notify clients about this, the machine
+            // stays running as far as they are concerned.
+            runState = VMRunState.LOADING_DEVICES;
+        }
+    }
+
     private void setBusState(final CommonDeviceBusController.BusState value) {
         if (value == busState) {
             return;
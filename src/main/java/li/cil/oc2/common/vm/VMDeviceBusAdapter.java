@@ -77,6 +77,21 @@ public final class VMDeviceBusAdapter {
         unload();
     }
 
+    /**
+     * Suspends all devices while keeping their runtime state, so that the next call to
+     * {@link #mount()} continues where they left off.
+     * <p>
+     * Devices cache the state they serialize, the same way they do when their container
+     * gets saved before being unloaded, and restore it when mounted again.
+     */
+    public void hibernate() {
+        for (final VMDevice device : deviceContexts.keySet()) {
+            device.serializeNBT();
+        }
+
+        suspend();
+    }
+
     public void addDevices(final Collection<Device> devices) {
         for (final Device device : devices) {
             if (device instanceof VMDevice) {
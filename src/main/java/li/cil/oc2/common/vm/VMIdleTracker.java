@@ -0,0 +1,84 @@
+package li.cil.oc2.common.vm;
+
+/**
+ * Decides when a virtual machine has been idle long enough to be hibernated.
+ * <p>
+ * A guest counts as idle while it does not exchange data with the outside world and its hart
+ * spends nearly all cycles halted, waiting for an interrupt. A halted hart only advances its
+ * cycle counter when stepped, so steps taking next to no time are counted as spent waiting.
+ * Guests busy computing, even without producing any output, are never considered idle.
+ * <p>
+ * Cycles are recorded by the runner thread, idle time is updated on the main thread.
+ */
+public final class VMIdleTracker {
+    // Actually executing a thousand instructions takes several microseconds at least, while
+    // stepping a halted hart is close to free.
+    private static final long MAX_WAITING_NANOS_PER_THOUSAND_CYCLES = 500;
+    private static final int MIN_WAITING_PERCENT = 90;
+
+    ///////////////////////////////////////////////////////////////////
+
+    private long cycles; // guarded by this
+    private long waitingCycles; // guarded by this
+    private int idleTicks;
+
+    ///////////////////////////////////////////////////////////////////
+
+    /**
+     * Checks whether a step of the specified length was spent waiting for an interrupt.
+     *
+     * @param cycles the number of cycles stepped.
+     * @param nanos  the time it took to step the cycles.
+     * @return {@code true} if the hart was waiting; {@code false} otherwise.
+     */
+    public static boolean isWaiting(final int cycles, final long nanos) {
+        return nanos * 1000 <= MAX_WAITING_NANOS_PER_THOUSAND_CYCLES * cycles;
+    }
+
+    /**
+     * Records the cycles run in a timeslice.
+     *
+     * @param cycles        the number of cycles run.
+     * @param waitingCycles the number of those cycles spent waiting for an interrupt.
+     */
+    public synchronized void recordTimeslice(final long cycles, final long waitingCycles) {
+        this.cycles += cycles;
+        this.waitingCycles += waitingCycles;
+    }
+
+    /**
+     * Updates idle time based on the cycles recorded since the last call. Call this once per tick.
+     *
+     * @param hadActivity         whether the guest interacted with the outside world this tick.
+     * @param hibernateAfterTicks the number of consecutive idle ticks after which to hibernate.
+     * @return {@code true} if the virtual machine should be hibernated; {@code false} otherwise.
+     */
+    public boolean update(final boolean hadActivity, final int hibernateAfterTicks) {
+        final long ranCycles, ranWaitingCycles;
+        synchronized (this) {
+            ranCycles = cycles;
+            ranWaitingCycles = waitingCycles;
+            cycles = 0;
+            waitingCycles = 0;
+        }
+
+        if (hadActivity || ranWaitingCycles * 100 < ranCycles * MIN_WAITING_PERCENT) {
+            idleTicks = 0;
+            return false;
+        }
+
+        // Timeslices finish asynchronously, so there may be ticks without any recorded cycles.
+        // These tell us nothing about the guest, so they do not count towards idle time.
+        if (ranCycles == 0) {
+            return false;
+        }
+
+        return ++idleTicks >= hibernateAfterTicks;
+    }
+
+    public synchronized void reset() {
+        cycles = 0;
+        waitingCycles = 0;
+        idleTicks = 0;
+    }
+}
@@ -8,6 +8,9 @@ import li.cil.oc2.api.bus.device.vm.event.VMResumingRunningEvent;
 import li.cil.oc2.common.Constants;
 import li.cil.oc2.common.bus.RPCDeviceBusAdapter;
 import li.cil.oc2.common.vm.context.global.GlobalVMContext;
+import li.cil.sedna.api.Sizes;
+import li.cil.sedna.api.memory.MemoryAccessException;
+import li.cil.sedna.api.memory.MemoryMap;
 import li.cil.sedna.riscv.R5Board;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TranslationTextComponent;
@@ -17,12 +20,18 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class VMRunner implements Runnable {
     private static final int TICKS_PER_SECOND = 20;
     private static final int TIMESLICE_IN_MS = 1000 / TICKS_PER_SECOND;
 
+    // Timer registers of the core local interrupter, at the standard location used by R5Board.
+    private static final long CLINT_ADDRESS = 0x02000000L;
+    private static final long CLINT_MTIMECMP_ADDRESS = CLINT_ADDRESS + 0x4000;
+    private static final long CLINT_MTIME_ADDRESS = CLINT_ADDRESS + 0xBFF8;
+
     private static final ExecutorService VM_RUNNERS = Executors.newCachedThreadPool(r -> {
         final Thread thread = new Thread(r);
         thread.setDaemon(true);
@@ -35,7 +44,12 @@ public class VMRunner implements Runnable {
     private final R5Board board;
     private final GlobalVMContext context;
     private final RPCDeviceBusAdapter rpcAdapter;
+    protected final VMStatistics statistics;
+    private final VMIdleTracker idleTracker;
+    private final int cyclesPerTick;
+    private final int timesliceInMillis;
     private final AtomicInteger timeQuotaInMillis = new AtomicInteger();
+    private final AtomicBoolean hadActivity = new AtomicBoolean();
     private Future<?> lastSchedule;
 
     ///////////////////////////////////////////////////////////////////
@@ -46,6 +60,7 @@ public class VMRunner implements Runnable {
 
     @Serialized private long cycleLimit;
     @Serialized private long cycles;
+    @Serialized private long cyclesToSkip;
 
     ///////////////////////////////////////////////////////////////////
 
@@ -53,6 +68,11 @@ public class VMRunner implements Runnable {
         this.board = virtualMachine.state.board;
         context = virtualMachine.state.context;
         rpcAdapter = virtualMachine.state.rpcAdapter;
+        statistics = virtualMachine.statistics;
+        idleTracker = virtualMachine.idleTracker;
+        cyclesPerTick = virtualMachine.getCpuFrequency() / TICKS_PER_SECOND;
+        timesliceInMillis = Math.max(1, (int) Math.round(TIMESLICE_IN_MS * Math.min(1, virtualMachine.getSchedulingWeight())));
+        statistics.register();
     }
 
     ///////////////////////////////////////////////////////////////////
@@ -66,12 +86,71 @@ public class VMRunner implements Runnable {
         return runtimeError;
     }
 
+    /**
+     * Returns whether the VM interacted with the outside world since the last call to
+     * this method, e.g. by exchanging terminal or RPC data.
+     *
+     * @return {@code true} if there was activity; {@code false} otherwise.
+     */
+    public boolean consumeActivity() {
+        final boolean rpcActivity = rpcAdapter.consumeActivity();
+        return hadActivity.getAndSet(false) || rpcActivity;
+    }
+
+    public boolean hasPendingInput() {
+        return rpcAdapter.hasQueuedEvents();
+    }
+
+    public int getCyclesPerTick() {
+        return cyclesPerTick;
+    }
+
+    /**
+     * Advances guest time by the specified number of cycles before running regular timeslices.
+     * <p>
+     * Used to catch up on time the guest spent hibernated while waiting for an interrupt. The hart
+     * is halted during that time, so stepping through it is cheap. Skipped cycles do not count
+     * against the cycle budget of the runner.
+     * <p>
+     * Must only be called while the runner is not running.
+     *
+     * @param cycles the number of cycles to skip.
+     */
+    public void skipCycles(final long cycles) {
+        cyclesToSkip += Math.max(0, cycles);
+    }
+
+    /**
+     * Returns the number of cycles until the timer interrupt programmed by the guest is due.
+     * <p>
+     * Must only be called while the runner is not running.
+     *
+     * @return the number of cycles until the timer interrupt; zero if it is already pending.
+     */
+    public long getCyclesUntilTimerInterrupt() {
+        try {
+            final MemoryMap memoryMap = board.getMemoryMap();
+            final long mtime = memoryMap.load(CLINT_MTIME_ADDRESS, Sizes.SIZE_64_LOG2);
+            final long mtimecmp = memoryMap.load(CLINT_MTIMECMP_ADDRESS, Sizes.SIZE_64_LOG2);
+            if (Long.compareUnsigned(mtimecmp, mtime) <= 0) {
+                return 0;
+            }
+
+            // The timer runs at CPU frequency in R5Board, so timer ticks are cycles.
+            final long cycles = mtimecmp - mtime;
+            return cycles < 0 ? Long.MAX_VALUE : cycles;
+        } catch (final MemoryAccessException e) {
+            return 0;
+        }
+    }
+
     public void tick() {
         rpcAdapter.tick();
 
-        cycleLimit += getCyclesPerTick();
+        cycleLimit += cyclesPerTick;
+        statistics.addCyclesBudgeted(cyclesPerTick);
 
-        final int timeQuota = timeQuotaInMillis.updateAndGet(x -> Math.min(x + TIMESLICE_IN_MS, TIMESLICE_IN_MS));
+        final int timeQuota = timeQuotaInMillis.updateAndGet(x -> Math.min(x + timesliceInMillis, timesliceInMillis));
         final boolean needsScheduling = lastSchedule == null || lastSchedule.isDone() || lastSchedule.isCancelled();
         if (cycleLimit > 0 && timeQuota > 0 && needsScheduling) {
             lastSchedule = VM_RUNNERS.submit(this);
@@ -94,8 +173,10 @@ public class VMRunner implements Runnable {
     public void run() {
         do {
             final long start = System.currentTimeMillis();
+            final long startNanos = System.nanoTime();
+            final long startCycles = cycles;
 
-            final int cycleBudget = getCyclesPerTick();
+            final int cycleBudget = cyclesPerTick;
             final int cyclesPerStep = 1_000;
             final int maxSteps = cycleBudget / cyclesPerStep;
 
@@ -105,18 +186,36 @@ public class VMRunner implements Runnable {
                 break;
             }
 
+            while (cyclesToSkip > 0 && System.currentTimeMillis() - start <= timeQuotaInMillis.get()) {
+                final int skipped = (int) Math.min(cyclesToSkip, cycleBudget);
+                board.step(skipped);
+                cyclesToSkip -= skipped;
+            }
+
+            boolean didOverrun = false;
+            long waitingCycles = 0;
             for (int i = 0; i < maxSteps; i++) {
                 cycles += cyclesPerStep;
+
+                final long stepStartNanos = System.nanoTime();
                 board.step(cyclesPerStep);
+                if (VMIdleTracker.isWaiting(cyclesPerStep, System.nanoTime() - stepStartNanos)) {
+                    waitingCycles += cyclesPerStep;
+                }
+
                 step(cyclesPerStep);
 
                 if (System.currentTimeMillis() - start > timeQuotaInMillis.get()) {
+                    didOverrun = true;
                     break;
                 }
             }
 
             handleAfterRun();
 
+            statistics.recordTimeslice(cycles - startCycles, System.nanoTime() - startNanos, didOverrun);
+            idleTracker.recordTimeslice(cycles - startCycles, waitingCycles);
+
             final int elapsed = (int) (System.currentTimeMillis() - start);
             timeQuotaInMillis.addAndGet(-elapsed);
         } while (cycles < cycleLimit && timeQuotaInMillis.get() > 0);
@@ -147,12 +246,10 @@ public class VMRunner implements Runnable {
         rpcAdapter.step(cyclesPerStep);
     }
 
-    protected void handleAfterRun() {
+    protected void markActivity() {
+        hadActivity.set(true);
     }
 
-    ///////////////////////////////////////////////////////////////////
-
-    private static int getCyclesPerTick() {
-        return Constants.CPU_FREQUENCY / TICKS_PER_SECOND;
+    protected void handleAfterRun() {
     }
 }
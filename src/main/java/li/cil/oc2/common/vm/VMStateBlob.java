@@ -0,0 +1,154 @@
+package li.cil.oc2.common.vm;
+
+import li.cil.oc2.common.serialization.BlobStorage;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the serialized state of a virtual machine in a blob, so that only the blob handle
+ * has to be stored in the NBT of the owning tile entity or entity.
+ * <p>
+ * Blobs start with a header consisting of a magic number, the format version, the length of
+ * the data and a CRC32 checksum of the data, followed by the state as uncompressed NBT.
+ * <p>
+ * The checksum of the state last written or read is remembered. Saving state that did not
+ * change since then does not touch the disk at all. Changed state is written in the background,
+ * replacing the blob atomically, see {@link BlobStorage#write(UUID, byte[])}.
+ */
+public final class VMStateBlob {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final String BLOB_HANDLE_TAG_NAME = "blob";
+
+    private static final int MAGIC = 0x4F433256; // OC2V
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private static final long NO_CHECKSUM = -1;
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Nullable private UUID handle;
+    private long checksum = NO_CHECKSUM; // Checksum of the data currently in the blob, if known.
+
+    ///////////////////////////////////////////////////////////////////
+
+    public boolean hasHandle() {
+        return handle != null;
+    }
+
+    /**
+     * Writes the specified state to the blob, unless it is unchanged since the last call to
+     * {@link #save(CompoundNBT)} or {@link #load()}.
+     *
+     * @param tag the state to store.
+     * @throws IOException if serializing the state fails.
+     */
+    public void save(final CompoundNBT tag) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompressedStreamTools.write(tag, new DataOutputStream(bytes));
+        final byte[] data = bytes.toByteArray();
+
+        final long dataChecksum = computeChecksum(data, 0, data.length);
+        if (handle != null && dataChecksum == checksum) {
+            return;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + data.length);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(data.length);
+        buffer.putInt((int) dataChecksum);
+        buffer.put(data);
+
+        handle = BlobStorage.validateHandle(handle);
+        BlobStorage.write(handle, buffer.array());
+        checksum = dataChecksum;
+    }
+
+    /**
+     * Reads the state stored in the blob.
+     *
+     * @return the stored state, or {@code null} if there is no valid state stored.
+     * @throws IOException if reading the blob fails.
+     */
+    @Nullable
+    public CompoundNBT load() throws IOException {
+        checksum = NO_CHECKSUM;
+        if (handle == null) {
+            return null;
+        }
+
+        final byte[] data = BlobStorage.read(handle);
+        if (data.length == 0) {
+            return null;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            LOGGER.warn("Virtual machine state [{}] is not in a known format, ignoring.", handle);
+            return null;
+        }
+
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            LOGGER.warn("Virtual machine state [{}] has unsupported version [{}], ignoring.", handle, version);
+            return null;
+        }
+
+        final int length = buffer.getInt();
+        final long dataChecksum = buffer.getInt() & 0xFFFFFFFFL;
+        if (length != buffer.remaining() || dataChecksum != computeChecksum(buffer.array(), HEADER_SIZE, length)) {
+            LOGGER.warn("Virtual machine state [{}] is corrupted, ignoring.", handle);
+            return null;
+        }
+
+        final CompoundNBT tag = CompressedStreamTools.read(new DataInputStream(new ByteArrayInputStream(buffer.array(), HEADER_SIZE, length)));
+        checksum = dataChecksum;
+        return tag;
+    }
+
+    /**
+     * Deletes the blob. Call this when the virtual machine is destroyed for good.
+     */
+    public void delete() {
+        if (handle != null) {
+            BlobStorage.delete(handle);
+            handle = null;
+        }
+        checksum = NO_CHECKSUM;
+    }
+
+    public void serialize(final CompoundNBT tag) {
+        if (handle != null) {
+            tag.putUUID(BLOB_HANDLE_TAG_NAME, handle);
+        }
+    }
+
+    public void deserialize(final CompoundNBT tag) {
+        final UUID value = tag.hasUUID(BLOB_HANDLE_TAG_NAME) ? tag.getUUID(BLOB_HANDLE_TAG_NAME) : null;
+        if (!Objects.equals(value, handle)) {
+            handle = value;
+            checksum = NO_CHECKSUM;
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static long computeChecksum(final byte[] data, final int offset, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return crc.getValue();
+    }
+}
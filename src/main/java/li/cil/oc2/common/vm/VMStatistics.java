@@ -0,0 +1,298 @@
+package li.cil.oc2.common.vm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Performance counters of a single virtual machine.
+ * <p>
+ * Counters are updated by the runner thread and the main thread and may be read at any time,
+ * e.g. by the statistics command or via JMX. Updates are a few uncontended atomic operations
+ * per timeslice or call, so these are always collected.
+ * <p>
+ * Statistics of running virtual machines are registered globally, to allow listing them.
+ */
+public final class VMStatistics {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final String MBEAN_NAME = "li.cil.oc2:type=VirtualMachines";
+
+    /**
+     * Upper bounds of the buckets of the RPC latency histogram, in milliseconds. The last
+     * bucket of the histogram holds all calls taking longer than the last bound.
+     */
+    public static final long[] RPC_LATENCY_BUCKET_BOUNDS_IN_MS = {1, 5, 10, 25, 50, 100, 250};
+
+    // Statistics of virtual machines that are not unregistered, e.g. because an unload
+    // event did not arrive, will not keep the virtual machine alive.
+    private static final Set<VMStatistics> REGISTERED = Collections.newSetFromMap(new WeakHashMap<>());
+
+    ///////////////////////////////////////////////////////////////////
+
+    private final Supplier<String> description;
+
+    private final AtomicLong cyclesBudgeted = new AtomicLong();
+    private final AtomicLong cyclesExecuted = new AtomicLong();
+    private final AtomicLong timeslices = new AtomicLong();
+    private final AtomicLong timesliceNanos = new AtomicLong();
+    private final AtomicLong maxTimesliceNanos = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private final AtomicLong rpcCalls = new AtomicLong();
+    private final AtomicLong rpcLatencyNanos = new AtomicLong();
+    private final AtomicLongArray rpcLatencyHistogram = new AtomicLongArray(RPC_LATENCY_BUCKET_BOUNDS_IN_MS.length + 1);
+    private final AtomicLong terminalBytes = new AtomicLong();
+
+    ///////////////////////////////////////////////////////////////////
+
+    public static void initialize() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MXBean(), name);
+            }
+        } catch (final JMException | SecurityException e) {
+            LOGGER.warn("Failed registering virtual machine statistics MBean.", e);
+        }
+    }
+
+    public static List<VMStatistics> getRegistered() {
+        synchronized (REGISTERED) {
+            return new ArrayList<>(REGISTERED);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    public VMStatistics(final Supplier<String> description) {
+        this.description = description;
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    public void register() {
+        synchronized (REGISTERED) {
+            REGISTERED.add(this);
+        }
+    }
+
+    public void unregister() {
+        synchronized (REGISTERED) {
+            REGISTERED.remove(this);
+        }
+    }
+
+    public void addCyclesBudgeted(final long value) {
+        cyclesBudgeted.addAndGet(value);
+    }
+
+    public void recordTimeslice(final long cycles, final long nanos, final boolean didOverrun) {
+        cyclesExecuted.addAndGet(cycles);
+        timeslices.incrementAndGet();
+        timesliceNanos.addAndGet(nanos);
+        maxTimesliceNanos.accumulateAndGet(nanos, Math::max);
+        if (didOverrun) {
+            overruns.incrementAndGet();
+        }
+    }
+
+    public void recordRPCCall(final long latencyNanos) {
+        final long clampedLatencyNanos = Math.max(0, latencyNanos);
+        rpcCalls.incrementAndGet();
+        rpcLatencyNanos.addAndGet(clampedLatencyNanos);
+
+        final long latencyMillis = clampedLatencyNanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < RPC_LATENCY_BUCKET_BOUNDS_IN_MS.length && latencyMillis >= RPC_LATENCY_BUCKET_BOUNDS_IN_MS[bucket]) {
+            bucket++;
+        }
+        rpcLatencyHistogram.incrementAndGet(bucket);
+    }
+
+    public void addTerminalBytes(final int value) {
+        terminalBytes.addAndGet(value);
+    }
+
+    public Snapshot snapshot() {
+        final long[] histogram = new long[rpcLatencyHistogram.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = rpcLatencyHistogram.get(i);
+        }
+
+        return new Snapshot(
+                description.get(),
+                cyclesBudgeted.get(),
+                cyclesExecuted.get(),
+                timeslices.get(),
+                timesliceNanos.get(),
+                maxTimesliceNanos.get(),
+                overruns.get(),
+                rpcCalls.get(),
+                rpcLatencyNanos.get(),
+                histogram,
+                terminalBytes.get());
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    public static final class Snapshot {
+        private final String description;
+        private final long cyclesBudgeted;
+        private final long cyclesExecuted;
+        private final long timeslices;
+        private final long timesliceNanos;
+        private final long maxTimesliceNanos;
+        private final long overruns;
+        private final long rpcCalls;
+        private final long rpcLatencyNanos;
+        private final long[] rpcLatencyHistogram;
+        private final long terminalBytes;
+
+        @ConstructorProperties({"description", "cyclesBudgeted", "cyclesExecuted", "timeslices", "timesliceNanos",
+                "maxTimesliceNanos", "overruns", "RPCCalls", "RPCLatencyNanos", "RPCLatencyHistogram", "terminalBytes"})
+        public Snapshot(final String description, final long cyclesBudgeted, final long cyclesExecuted,
+                        final long timeslices, final long timesliceNanos, final long maxTimesliceNanos,
+                        final long overruns, final long rpcCalls, final long rpcLatencyNanos,
+                        final long[] rpcLatencyHistogram, final long terminalBytes) {
+            this.description = description;
+            this.cyclesBudgeted = cyclesBudgeted;
+            this.cyclesExecuted = cyclesExecuted;
+            this.timeslices = timeslices;
+            this.timesliceNanos = timesliceNanos;
+            this.maxTimesliceNanos = maxTimesliceNanos;
+            this.overruns = overruns;
+            this.rpcCalls = rpcCalls;
+            this.rpcLatencyNanos = rpcLatencyNanos;
+            this.rpcLatencyHistogram = rpcLatencyHistogram;
+            this.terminalBytes = terminalBytes;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public long getCyclesBudgeted() {
+            return cyclesBudgeted;
+        }
+
+        public long getCyclesExecuted() {
+            return cyclesExecuted;
+        }
+
+        public long getTimeslices() {
+            return timeslices;
+        }
+
+        public long getTimesliceNanos() {
+            return timesliceNanos;
+        }
+
+        public long getMaxTimesliceNanos() {
+            return maxTimesliceNanos;
+        }
+
+        public long getOverruns() {
+            return overruns;
+        }
+
+        public long getRPCCalls() {
+            return rpcCalls;
+        }
+
+        public long getRPCLatencyNanos() {
+            return rpcLatencyNanos;
+        }
+
+        public long[] getRPCLatencyHistogram() {
+            return rpcLatencyHistogram;
+        }
+
+        public long getTerminalBytes() {
+            return terminalBytes;
+        }
+    }
+
+    private static final class MXBean implements VMStatisticsMXBean {
+        @Override
+        public int getVirtualMachineCount() {
+            synchronized (REGISTERED) {
+                return REGISTERED.size();
+            }
+        }
+
+        @Override
+        public long getCyclesBudgeted() {
+            return sum(statistics -> statistics.cyclesBudgeted.get());
+        }
+
+        @Override
+        public long getCyclesExecuted() {
+            return sum(statistics -> statistics.cyclesExecuted.get());
+        }
+
+        @Override
+        public long getTimeslices() {
+            return sum(statistics -> statistics.timeslices.get());
+        }
+
+        @Override
+        public long getTimesliceNanos() {
+            return sum(statistics -> statistics.timesliceNanos.get());
+        }
+
+        @Override
+        public long getOverruns() {
+            return sum(statistics -> statistics.overruns.get());
+        }
+
+        @Override
+        public long getRPCCalls() {
+            return sum(statistics -> statistics.rpcCalls.get());
+        }
+
+        @Override
+        public long getRPCLatencyNanos() {
+            return sum(statistics -> statistics.rpcLatencyNanos.get());
+        }
+
+        @Override
+        public long[] getRPCLatencyHistogram() {
+            final long[] result = new long[RPC_LATENCY_BUCKET_BOUNDS_IN_MS.length + 1];
+            for (final VMStatistics statistics : getRegistered()) {
+                for (int i = 0; i < result.length; i++) {
+                    result[i] += statistics.rpcLatencyHistogram.get(i);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public long getTerminalBytes() {
+            return sum(statistics -> statistics.terminalBytes.get());
+        }
+
+        @Override
+        public Snapshot[] getVirtualMachines() {
+            return getRegistered().stream().map(VMStatistics::snapshot).toArray(Snapshot[]::new);
+        }
+
+        private static long sum(final ToLongFunction<VMStatistics> getter) {
+            long result = 0;
+            for (final VMStatistics statistics : getRegistered()) {
+                result += getter.applyAsLong(statistics);
+            }
+            return result;
+        }
+    }
+}
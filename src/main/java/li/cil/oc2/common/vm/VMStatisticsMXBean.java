@@ -0,0 +1,30 @@
+package li.cil.oc2.common.vm;
+
+/**
+ * Management interface exposing server-wide virtual machine statistics via JMX.
+ * <p>
+ * All counters are totals over the currently running virtual machines.
+ */
+public interface VMStatisticsMXBean {
+    int getVirtualMachineCount();
+
+    long getCyclesBudgeted();
+
+    long getCyclesExecuted();
+
+    long getTimeslices();
+
+    long getTimesliceNanos();
+
+    long getOverruns();
+
+    long getRPCCalls();
+
+    long getRPCLatencyNanos();
+
+    long[] getRPCLatencyHistogram();
+
+    long getTerminalBytes();
+
+    VMStatistics.Snapshot[] getVirtualMachines();
+}
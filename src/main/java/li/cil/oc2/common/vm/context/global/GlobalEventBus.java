@@ -1,53 +1,192 @@
 package li.cil.oc2.common.vm.context.global;
 
-import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.SubscriberExceptionContext;
+import com.google.common.eventbus.Subscribe;
 import li.cil.oc2.api.bus.device.vm.context.VMLifecycleEventBus;
 import li.cil.oc2.api.bus.device.vm.event.VMInitializationException;
 import li.cil.oc2.common.vm.context.EventManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dispatches lifecycle events to methods annotated with {@link Subscribe}.
+ * <p>
+ * Subscriber methods are looked up once per subscriber class. Per event type, the list of
+ * matching subscribers is computed on first post and cached until subscribers change, which
+ * only happens while devices are mounted or unmounted. Posting an event thus boils down to
+ * a map lookup and direct invocation of the subscriber methods.
+ * <p>
+ * Events posted by subscribers while an event is being dispatched are queued and dispatched
+ * after the current event, so all subscribers see events in the order they were posted.
+ */
 @SuppressWarnings("UnstableApiUsage")
 final class GlobalEventBus implements VMLifecycleEventBus, EventManager {
     private static final Logger LOGGER = LogManager.getLogger();
 
+    private static final MethodType SUBSCRIBER_METHOD_TYPE = MethodType.methodType(void.class, Object.class);
+    private static final Map<Class<?>, List<Method>> SUBSCRIBER_METHODS_BY_CLASS = new ConcurrentHashMap<>();
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
     ///////////////////////////////////////////////////////////////////
 
-    private final EventBus eventBus = new EventBus(this::handleEventBusException);
-    private VMInitializationException initializationException;
+    private final ArrayList<Subscriber> subscribers = new ArrayList<>(); // guarded by this
+    private volatile Map<Class<?>, Subscriber[]> subscribersByEventType = Collections.emptyMap();
+
+    private final ThreadLocal<ArrayDeque<Object>> queuedEvents = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<Boolean> isDispatching = ThreadLocal.withInitial(() -> false);
 
     ///////////////////////////////////////////////////////////////////
 
     public void post(final Object event) {
-        initializationException = null;
+        final ArrayDeque<Object> queue = queuedEvents.get();
+        queue.add(event);
+
+        // Nested post from a subscriber, will be dispatched by the outermost post.
+        if (isDispatching.get()) {
+            return;
+        }
 
-        eventBus.post(event);
+        VMInitializationException initializationException = null;
 
-        final VMInitializationException exception = initializationException;
-        initializationException = null;
-        if (exception != null) {
-            throw exception;
+        isDispatching.set(true);
+        try {
+            Object next;
+            while ((next = queue.poll()) != null) {
+                for (final Subscriber subscriber : getSubscribers(next.getClass())) {
+                    try {
+                        subscriber.handle.invokeExact(next);
+                    } catch (final VMInitializationException e) {
+                        initializationException = e;
+                    } catch (final Throwable e) {
+                        LOGGER.error(e);
+                    }
+                }
+            }
+        } finally {
+            queue.clear();
+            isDispatching.remove();
+        }
+
+        if (initializationException != null) {
+            throw initializationException;
         }
     }
 
     @Override
-    public void register(final Object subscriber) {
-        eventBus.register(subscriber);
+    public synchronized void register(final Object subscriber) {
+        for (final Subscriber existing : subscribers) {
+            if (existing.target == subscriber) {
+                return;
+            }
+        }
+
+        for (final Method method : getSubscriberMethods(subscriber.getClass())) {
+            try {
+                final MethodHandle handle = MethodHandles.lookup().unreflect(method)
+                        .bindTo(subscriber)
+                        .asType(SUBSCRIBER_METHOD_TYPE);
+                subscribers.add(new Subscriber(subscriber, method.getParameterTypes()[0], handle));
+            } catch (final IllegalAccessException e) {
+                LOGGER.error("Failed accessing event subscriber [{}.{}], ignoring.", method.getDeclaringClass().getName(), method.getName());
+            }
+        }
+
+        subscribersByEventType = Collections.emptyMap();
     }
 
     @Override
-    public void unregister(final Object subscriber) {
-        eventBus.unregister(subscriber);
+    public synchronized void unregister(final Object subscriber) {
+        if (subscribers.removeIf(existing -> existing.target == subscriber)) {
+            subscribersByEventType = Collections.emptyMap();
+        }
     }
 
     ///////////////////////////////////////////////////////////////////
 
-    private void handleEventBusException(final Throwable throwable, final SubscriberExceptionContext context) {
-        if (throwable instanceof VMInitializationException) {
-            initializationException = (VMInitializationException) throwable;
-        } else {
-            LOGGER.error(throwable);
+    private Subscriber[] getSubscribers(final Class<?> eventType) {
+        final Subscriber[] cached = subscribersByEventType.get(eventType);
+        if (cached != null) {
+            return cached;
+        }
+
+        synchronized (this) {
+            final ArrayList<Subscriber> result = new ArrayList<>();
+            for (final Subscriber subscriber : subscribers) {
+                if (subscriber.eventType.isAssignableFrom(eventType)) {
+                    result.add(subscriber);
+                }
+            }
+
+            final Subscriber[] value = result.isEmpty() ? NO_SUBSCRIBERS : result.toArray(NO_SUBSCRIBERS);
+
+            // Copy on write, so posting never needs to lock once the cache is warm.
+            final HashMap<Class<?>, Subscriber[]> map = new HashMap<>(subscribersByEventType);
+            map.put(eventType, value);
+            subscribersByEventType = map;
+
+            return value;
+        }
+    }
+
+    private static List<Method> getSubscriberMethods(final Class<?> type) {
+        return SUBSCRIBER_METHODS_BY_CLASS.computeIfAbsent(type, GlobalEventBus::findSubscriberMethods);
+    }
+
+    private static List<Method> findSubscriberMethods(final Class<?> type) {
+        // Walk the type hierarchy, including interfaces. Subclasses come before their supertypes,
+        // so methods overridden in subclasses are only added once, for the most specific type.
+        final ArrayList<Method> result = new ArrayList<>();
+        final HashSet<List<Object>> seen = new HashSet<>();
+        for (final Class<?> current : getTypeHierarchy(type)) {
+            for (final Method method : current.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Subscribe.class) || method.isSynthetic() || method.getParameterCount() != 1) {
+                    continue;
+                }
+
+                if (seen.add(Arrays.asList(method.getName(), method.getParameterTypes()[0]))) {
+                    method.setAccessible(true);
+                    result.add(method);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<Class<?>> getTypeHierarchy(final Class<?> type) {
+        final LinkedHashSet<Class<?>> result = new LinkedHashSet<>();
+        final ArrayDeque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            final Class<?> current = queue.poll();
+            if (current == Object.class || !result.add(current)) {
+                continue;
+            }
+
+            if (current.getSuperclass() != null) {
+                queue.add(current.getSuperclass());
+            }
+            queue.addAll(Arrays.asList(current.getInterfaces()));
+        }
+        return result;
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final class Subscriber {
+        public final Object target;
+        public final Class<?> eventType;
+        public final MethodHandle handle;
+
+        public Subscriber(final Object target, final Class<?> eventType, final MethodHandle handle) {
+            this.target = target;
+            this.eventType = eventType;
+            this.handle = handle;
         }
     }
 }
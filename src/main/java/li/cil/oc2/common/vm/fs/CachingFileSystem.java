@@ -0,0 +1,306 @@
+package li.cil.oc2.common.vm.fs;
+
+import li.cil.sedna.fs.*;
+
+import javax.annotation.Nullable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps a {@link FileSystem} and caches file attributes and directory listings for a short time.
+ * <p>
+ * This is intended for file systems backed by the host's file system, where each lookup costs
+ * system calls. Guests tend to query the same paths many times in quick succession, e.g. when
+ * walking a path and then stat-ing it. Changes made through this file system invalidate affected
+ * entries immediately, changes made on the host become visible once cached entries expire.
+ * Expired entries are evicted, and the number of cached entries is bounded, so that walking
+ * large directory trees does not grow the cache indefinitely.
+ * <p>
+ * Paths containing parent references are rejected, so the guest can never leave the root of the
+ * wrapped file system.
+ */
+public final class CachingFileSystem implements FileSystem {
+    private static final long CACHE_DURATION_IN_MS = 1000;
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    ///////////////////////////////////////////////////////////////////
+
+    private final FileSystem fileSystem;
+    private final Cache<BasicFileAttributes> attributes = new Cache<>();
+    private final Cache<List<DirectoryEntry>> directories = new Cache<>();
+
+    ///////////////////////////////////////////////////////////////////
+
+    public CachingFileSystem(final FileSystem fileSystem) {
+        this.fileSystem = fileSystem;
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    public FileSystemStats statfs() throws IOException {
+        return fileSystem.statfs();
+    }
+
+    @Override
+    public long getUniqueId(final Path path) throws IOException {
+        validatePath(path);
+        return fileSystem.getUniqueId(path);
+    }
+
+    @Override
+    public boolean exists(final Path path) {
+        return getCachedAttributes(path) != null;
+    }
+
+    @Override
+    public boolean isDirectory(final Path path) {
+        final BasicFileAttributes value = getCachedAttributes(path);
+        return value != null && value.isDirectory();
+    }
+
+    @Override
+    public boolean isWritable(final Path path) {
+        return isValidPath(path) && fileSystem.isWritable(path);
+    }
+
+    @Override
+    public boolean isReadable(final Path path) {
+        return isValidPath(path) && fileSystem.isReadable(path);
+    }
+
+    @Override
+    public boolean isExecutable(final Path path) {
+        return isValidPath(path) && fileSystem.isExecutable(path);
+    }
+
+    @Override
+    public BasicFileAttributes getAttributes(final Path path) throws IOException {
+        final BasicFileAttributes value = getCachedAttributes(path);
+        if (value == null) {
+            throw new FileNotFoundException();
+        }
+        return value;
+    }
+
+    @Override
+    public void mkdir(final Path path) throws IOException {
+        validatePath(path);
+        try {
+            fileSystem.mkdir(path);
+        } finally {
+            invalidate(path);
+        }
+    }
+
+    @Override
+    public FileHandle open(final Path path, final int flags) throws IOException {
+        validatePath(path);
+        return new CachingFileHandle(getKey(path), fileSystem.open(path, flags));
+    }
+
+    @Override
+    public FileHandle create(final Path path, final int flags) throws IOException {
+        validatePath(path);
+        try {
+            return new CachingFileHandle(getKey(path), fileSystem.create(path, flags));
+        } finally {
+            invalidate(path);
+        }
+    }
+
+    @Override
+    public void unlink(final Path path) throws IOException {
+        validatePath(path);
+        try {
+            fileSystem.unlink(path);
+        } finally {
+            invalidateTree(path);
+        }
+    }
+
+    @Override
+    public void rename(final Path oldPath, final Path newPath) throws IOException {
+        validatePath(oldPath);
+        validatePath(newPath);
+        try {
+            fileSystem.rename(oldPath, newPath);
+        } finally {
+            invalidateTree(oldPath);
+            invalidateTree(newPath);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static String getKey(final Path path) {
+        return String.join("/", path.getParts());
+    }
+
+    private static boolean isValidPath(final Path path) {
+        for (final String part : path.getParts()) {
+            if ("..".equals(part)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void validatePath(final Path path) throws FileNotFoundException {
+        if (!isValidPath(path)) {
+            throw new FileNotFoundException();
+        }
+    }
+
+    @Nullable
+    private BasicFileAttributes getCachedAttributes(final Path path) {
+        if (!isValidPath(path)) {
+            return null;
+        }
+
+        final String key = getKey(path);
+        final CachedValue<BasicFileAttributes> cached = attributes.get(key);
+        if (cached != null) {
+            return cached.value;
+        }
+
+        BasicFileAttributes value = null;
+        if (fileSystem.exists(path)) {
+            try {
+                value = fileSystem.getAttributes(path);
+            } catch (final IOException ignored) {
+            }
+        }
+
+        // Also cache misses, guests like to probe for files that do not exist.
+        attributes.put(key, value);
+        return value;
+    }
+
+    private void invalidate(final Path path) {
+        final String key = getKey(path);
+        attributes.remove(key);
+        directories.remove(key);
+
+        // Parent directory listing and attributes (modification time) change, too.
+        final int separatorIndex = key.lastIndexOf('/');
+        final String parentKey = separatorIndex >= 0 ? key.substring(0, separatorIndex) : "";
+        attributes.remove(parentKey);
+        directories.remove(parentKey);
+    }
+
+    private void invalidateTree(final Path path) {
+        invalidate(path);
+
+        // When a directory is renamed or deleted, entries for its children are stale, too.
+        final String prefix = getKey(path) + "/";
+        attributes.removeWithPrefix(prefix);
+        directories.removeWithPrefix(prefix);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    /**
+     * Cache of values by path key, in insertion order. Since all entries have the same lifetime,
+     * expired entries are always at the head, which allows cheaply evicting them on access.
+     */
+    private static final class Cache<T> {
+        private final LinkedHashMap<String, CachedValue<T>> entries = new LinkedHashMap<String, CachedValue<T>>() {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedValue<T>> eldest) {
+                return size() > MAX_CACHE_SIZE;
+            }
+        };
+
+        @Nullable
+        public synchronized CachedValue<T> get(final String key) {
+            evictExpired();
+            return entries.get(key);
+        }
+
+        public synchronized void put(final String key, @Nullable final T value) {
+            evictExpired();
+            entries.remove(key); // Re-insert at the tail, to keep entries ordered by age.
+            entries.put(key, new CachedValue<>(value));
+        }
+
+        public synchronized void remove(final String key) {
+            entries.remove(key);
+        }
+
+        public synchronized void removeWithPrefix(final String prefix) {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+
+        private void evictExpired() {
+            final Iterator<CachedValue<T>> iterator = entries.values().iterator();
+            while (iterator.hasNext() && iterator.next().isExpired()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class CachedValue<T> {
+        @Nullable public final T value;
+        private final long expiresAt;
+
+        public CachedValue(@Nullable final T value) {
+            this.value = value;
+            this.expiresAt = System.currentTimeMillis() + CACHE_DURATION_IN_MS;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    private final class CachingFileHandle implements FileHandle {
+        private final String key;
+        private final FileHandle handle;
+
+        public CachingFileHandle(final String key, final FileHandle handle) {
+            this.key = key;
+            this.handle = handle;
+        }
+
+        @Override
+        public int read(final long offset, final ByteBuffer buffer) throws IOException {
+            return handle.read(offset, buffer);
+        }
+
+        @Override
+        public int write(final long offset, final ByteBuffer buffer) throws IOException {
+            try {
+                return handle.write(offset, buffer);
+            } finally {
+                attributes.remove(key);
+            }
+        }
+
+        @Override
+        public List<DirectoryEntry> readdir() throws IOException {
+            final CachedValue<List<DirectoryEntry>> cached = directories.get(key);
+            if (cached != null && cached.value != null) {
+                return cached.value;
+            }
+
+            final List<DirectoryEntry> entries = handle.readdir();
+            directories.put(key, entries);
+            return entries;
+        }
+
+        @Override
+        public void close() {
+            try {
+                handle.close();
+            } catch (final Exception ignored) {
+            }
+        }
+    }
+}
@@ -2,25 +2,69 @@ package li.cil.oc2.common.vm.fs;
 
 import li.cil.sedna.fs.*;
 
+import javax.annotation.Nullable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-
+import java.util.*;
+
+/**
+ * Read-only file system presenting a stack of file systems as one.
+ * <p>
+ * When layers are set, a merged index of all paths is built, recording for each path the topmost
+ * layer providing it and, for directories, the merged directory listing. Lookups walk this index,
+ * so their cost only depends on the length of the path, not the number of layers.
+ * <p>
+ * Replaced layers may be closed by their owner right after they were replaced. Files opened
+ * before that remain readable, and opening a file in a layer closed between lookup and open is
+ * retried against the new index, so readers always see either the old or the new tree.
+ */
 public final class LayeredFileSystem implements FileSystem {
-    private final ArrayList<FileSystem> fileSystems = new ArrayList<>();
+    private static final Path ROOT = new Path("/");
 
     ///////////////////////////////////////////////////////////////////
 
-    public void addLayer(final FileSystem fileSystem) {
-        fileSystems.add(0, fileSystem);
+    private volatile List<FileSystem> fileSystems = Collections.emptyList();
+    @Nullable private volatile Node root;
+
+    ///////////////////////////////////////////////////////////////////
+
+    /**
+     * Replaces the current layers with the specified ones and rebuilds the path index.
+     * <p>
+     * Layers later in the list take precedence over earlier ones.
+     *
+     * @param layers the layers to use, in ascending order of precedence.
+     * @return the layers that were replaced.
+     */
+    public List<FileSystem> setLayers(final List<FileSystem> layers) {
+        final ArrayList<FileSystem> fileSystems = new ArrayList<>(layers);
+        Collections.reverse(fileSystems);
+
+        final ArrayList<FileSystem> rootLayers = new ArrayList<>();
+        for (final FileSystem fileSystem : fileSystems) {
+            if (fileSystem.exists(ROOT)) {
+                rootLayers.add(fileSystem);
+            }
+        }
+
+        final List<FileSystem> replaced = this.fileSystems;
+        this.root = rootLayers.isEmpty() ? null : buildNode(ROOT, rootLayers);
+        this.fileSystems = fileSystems;
+        return replaced;
     }
 
-    public void clear() {
-        fileSystems.clear();
+    /**
+     * Removes all layers.
+     *
+     * @return the layers that were removed.
+     */
+    public List<FileSystem> clear() {
+        final List<FileSystem> replaced = fileSystems;
+        root = null;
+        fileSystems = Collections.emptyList();
+        return replaced;
     }
 
     @Override
@@ -39,35 +83,18 @@ public final class LayeredFileSystem implements FileSystem {
 
     @Override
     public long getUniqueId(final Path path) throws IOException {
-        for (final FileSystem fileSystem : fileSystems) {
-            if (fileSystem.exists(path)) {
-                return fileSystem.getUniqueId(path);
-            }
-        }
-
-        throw new FileNotFoundException();
+        return getNodeOrThrow(path).fileSystem.getUniqueId(path);
     }
 
     @Override
     public boolean exists(final Path path) {
-        for (final FileSystem fileSystem : fileSystems) {
-            if (fileSystem.exists(path)) {
-                return true;
-            }
-        }
-
-        return false;
+        return getNode(path) != null;
     }
 
     @Override
     public boolean isDirectory(final Path path) {
-        for (final FileSystem fileSystem : fileSystems) {
-            if (fileSystem.exists(path)) {
-                return fileSystem.isDirectory(path);
-            }
-        }
-
-        return false;
+        final Node node = getNode(path);
+        return node != null && node.isDirectory();
     }
 
     @Override
@@ -77,35 +104,19 @@ public final class LayeredFileSystem implements FileSystem {
 
     @Override
     public boolean isReadable(final Path path) {
-        for (final FileSystem fileSystem : fileSystems) {
-            if (fileSystem.exists(path)) {
-                return fileSystem.isReadable(path);
-            }
-        }
-
-        return false;
+        final Node node = getNode(path);
+        return node != null && node.fileSystem.isReadable(path);
     }
 
     @Override
     public boolean isExecutable(final Path path) {
-        for (final FileSystem fileSystem : fileSystems) {
-            if (fileSystem.exists(path)) {
-                return fileSystem.isExecutable(path);
-            }
-        }
-
-        return false;
+        final Node node = getNode(path);
+        return node != null && node.fileSystem.isExecutable(path);
     }
 
     @Override
     public BasicFileAttributes getAttributes(final Path path) throws IOException {
-        for (final FileSystem fileSystem : fileSystems) {
-            if (fileSystem.exists(path)) {
-                return fileSystem.getAttributes(path);
-            }
-        }
-
-        throw new FileNotFoundException();
+        return getNodeOrThrow(path).fileSystem.getAttributes(path);
     }
 
     @Override
@@ -119,23 +130,28 @@ public final class LayeredFileSystem implements FileSystem {
             throw new IOException();
         }
 
-        if (isDirectory(path)) {
-            final ArrayList<FileHandle> fileHandles = new ArrayList<>();
-            for (final FileSystem fileSystem : fileSystems) {
-                if (fileSystem.isDirectory(path)) {
-                    fileHandles.add(fileSystem.open(path, flags));
-                }
+        final Node root = this.root;
+        final Node node = getNodeOrThrow(root, path);
+        if (node.isDirectory()) {
+            return new LayeredDirectoryFileHandle(node.entries);
+        }
+
+        try {
+            return node.fileSystem.open(path, flags);
+        } catch (final IOException e) {
+            final Node currentRoot = this.root;
+            if (currentRoot == root) {
+                throw e;
             }
-            return new LayeredDirectoryFileHandle(fileHandles);
-        } else {
-            for (final FileSystem fileSystem : fileSystems) {
-                if (fileSystem.exists(path)) {
-                    return fileSystem.open(path, flags);
-                }
+
+            // Layers were replaced while we were opening the file, use the new index.
+            final Node currentNode = getNodeOrThrow(currentRoot, path);
+            if (currentNode.isDirectory()) {
+                return new LayeredDirectoryFileHandle(currentNode.entries);
+            } else {
+                return currentNode.fileSystem.open(path, flags);
             }
         }
-
-        throw new FileNotFoundException();
     }
 
     @Override
@@ -155,23 +171,104 @@ public final class LayeredFileSystem implements FileSystem {
 
     ///////////////////////////////////////////////////////////////////
 
-    private static final class LayeredDirectoryFileHandle implements FileHandle {
-        private final ArrayList<DirectoryEntry> entries = new ArrayList<>();
+    @Nullable
+    private Node getNode(final Path path) {
+        return getNode(root, path);
+    }
+
+    @Nullable
+    private static Node getNode(@Nullable final Node root, final Path path) {
+        Node node = root;
+        for (final String part : path.getParts()) {
+            if (node == null || node.children == null) {
+                return null;
+            }
+            node = node.children.get(part);
+        }
+        return node;
+    }
+
+    private Node getNodeOrThrow(final Path path) throws FileNotFoundException {
+        return getNodeOrThrow(root, path);
+    }
+
+    private static Node getNodeOrThrow(@Nullable final Node root, final Path path) throws FileNotFoundException {
+        final Node node = getNode(root, path);
+        if (node == null) {
+            throw new FileNotFoundException();
+        }
+        return node;
+    }
+
+    /**
+     * Builds the index node for the specified path.
+     *
+     * @param path   the path to build the node for.
+     * @param layers the layers containing the path, topmost first. Never empty.
+     * @return the node for the path.
+     */
+    private static Node buildNode(final Path path, final List<FileSystem> layers) {
+        final FileSystem fileSystem = layers.get(0);
+        if (!fileSystem.isDirectory(path)) {
+            return new Node(fileSystem, null, Collections.emptyList());
+        }
+
+        // Merge listings of all layers in which this is a directory, the topmost layer
+        // providing an entry wins. Also track which layers provide each child entry.
+        final LinkedHashMap<String, DirectoryEntry> entries = new LinkedHashMap<>();
+        final HashMap<String, ArrayList<FileSystem>> childLayers = new HashMap<>();
+        for (final FileSystem layer : layers) {
+            if (!layer.isDirectory(path)) {
+                continue;
+            }
 
-        public LayeredDirectoryFileHandle(final ArrayList<FileHandle> fileHandles) {
-            for (final FileHandle fileHandle : fileHandles) {
+            try {
+                final FileHandle handle = layer.open(path, FileMode.READ);
                 try {
-                    final List<DirectoryEntry> layer = fileHandle.readdir();
-                    for (final DirectoryEntry entry : layer) {
-                        if (entries.stream().noneMatch(e -> Objects.equals(e.name, entry.name))) {
-                            entries.add(entry);
+                    for (final DirectoryEntry entry : handle.readdir()) {
+                        entries.putIfAbsent(entry.name, entry);
+                        if (!".".equals(entry.name) && !"..".equals(entry.name)) {
+                            childLayers.computeIfAbsent(entry.name, unused -> new ArrayList<>()).add(layer);
                         }
                     }
-                } catch (final IOException ignored) {
+                } finally {
+                    handle.close();
                 }
+            } catch (final IOException ignored) {
             }
         }
 
+        final HashMap<String, Node> children = new HashMap<>();
+        childLayers.forEach((name, nameLayers) -> children.put(name, buildNode(path.resolve(name), nameLayers)));
+
+        return new Node(fileSystem, children, Collections.unmodifiableList(new ArrayList<>(entries.values())));
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final class Node {
+        public final FileSystem fileSystem; // Topmost layer providing this path.
+        @Nullable public final Map<String, Node> children; // Null if this is not a directory.
+        public final List<DirectoryEntry> entries;
+
+        private Node(final FileSystem fileSystem, @Nullable final Map<String, Node> children, final List<DirectoryEntry> entries) {
+            this.fileSystem = fileSystem;
+            this.children = children;
+            this.entries = entries;
+        }
+
+        public boolean isDirectory() {
+            return children != null;
+        }
+    }
+
+    private static final class LayeredDirectoryFileHandle implements FileHandle {
+        private final List<DirectoryEntry> entries;
+
+        public LayeredDirectoryFileHandle(final List<DirectoryEntry> entries) {
+            this.entries = entries;
+        }
+
         @Override
         public int read(final long offset, final ByteBuffer buffer) throws IOException {
             throw new IOException();
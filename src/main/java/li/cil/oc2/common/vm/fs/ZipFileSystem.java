@@ -0,0 +1,482 @@
+package li.cil.oc2.common.vm.fs;
+
+import li.cil.oc2.api.API;
+import li.cil.sedna.fs.*;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Read-only file system backed by a zip file on disk.
+ * <p>
+ * Only the central directory of the archive is read when the file system is created. File
+ * contents are read from disk on demand, so the size of the archive does not affect heap usage.
+ * The file system must be {@link #close() closed} once it is no longer used, to release the
+ * archive. Files opened before the file system was closed remain readable, the archive is only
+ * released once the last of these has been closed as well.
+ */
+public final class ZipFileSystem implements FileSystem, Closeable {
+    private static final int READ_CHUNK_SIZE = 8 * 1024;
+
+    ///////////////////////////////////////////////////////////////////
+
+    private final ZipFile zipFile;
+    @Nullable private final File temporaryFile;
+    private final DirectoryNode root;
+    private long nextNodeId;
+    private long fileCount;
+
+    // One reference held by the owner of the file system, released via close(), one per open file.
+    private int referenceCount = 1; // guarded by this
+
+    ///////////////////////////////////////////////////////////////////
+
+    public ZipFileSystem(final ZipFile zipFile) {
+        this(zipFile, null);
+    }
+
+    private ZipFileSystem(final ZipFile zipFile, @Nullable final File temporaryFile) {
+        this.zipFile = zipFile;
+        this.temporaryFile = temporaryFile;
+        this.root = new DirectoryNode();
+
+        final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            addEntry(entries.nextElement());
+        }
+    }
+
+    /**
+     * Creates a new zip file system from the specified stream.
+     * <p>
+     * The stream is copied to a temporary file, which will be deleted once the file system is
+     * closed. This is used for archives that are not available as a file, such as resources
+     * provided by a mod jar.
+     *
+     * @param stream the stream to read the archive from.
+     * @return the file system for the archive.
+     * @throws IOException if copying or opening the archive fails.
+     */
+    public static ZipFileSystem fromStream(final InputStream stream) throws IOException {
+        final File file = File.createTempFile(API.MOD_ID + "-", ".zip");
+        try {
+            Files.copy(stream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            final ZipFile zipFile = new ZipFile(file);
+
+            // Where supported, the open zip file keeps the data alive until it gets closed.
+            // Otherwise, we delete the file when the file system gets closed.
+            if (file.delete()) {
+                return new ZipFileSystem(zipFile);
+            } else {
+                return new ZipFileSystem(zipFile, file);
+            }
+        } catch (final IOException e) {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the file system. No new files can be opened after this, files opened before remain
+     * readable. The underlying archive is closed once all of these have been closed.
+     *
+     * @throws IOException if closing the archive fails.
+     */
+    @Override
+    public void close() throws IOException {
+        release();
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    @Override
+    public FileSystemStats statfs() {
+        final FileSystemStats result = new FileSystemStats();
+        result.fileCount = fileCount;
+        return result;
+    }
+
+    @Override
+    public long getUniqueId(final Path path) throws IOException {
+        return getNodeOrThrow(path).id;
+    }
+
+    @Override
+    public boolean exists(final Path path) {
+        return getNode(path) != null;
+    }
+
+    @Override
+    public boolean isDirectory(final Path path) {
+        return getNode(path) instanceof DirectoryNode;
+    }
+
+    @Override
+    public boolean isWritable(final Path path) {
+        return false;
+    }
+
+    @Override
+    public boolean isReadable(final Path path) {
+        return exists(path);
+    }
+
+    @Override
+    public boolean isExecutable(final Path path) {
+        return exists(path);
+    }
+
+    @Override
+    public BasicFileAttributes getAttributes(final Path path) throws IOException {
+        return getNodeOrThrow(path);
+    }
+
+    @Override
+    public void mkdir(final Path path) throws IOException {
+        throw new IOException();
+    }
+
+    @Override
+    public FileHandle open(final Path path, final int flags) throws IOException {
+        if ((flags & FileMode.WRITE) != 0) {
+            throw new IOException();
+        }
+
+        final Node node = getNodeOrThrow(path);
+        if (node instanceof DirectoryNode) {
+            return new DirectoryFileHandle((DirectoryNode) node);
+        } else {
+            acquire();
+            return new EntryFileHandle((FileNode) node);
+        }
+    }
+
+    @Override
+    public FileHandle create(final Path path, final int flags) throws IOException {
+        throw new IOException();
+    }
+
+    @Override
+    public void unlink(final Path path) throws IOException {
+        throw new IOException();
+    }
+
+    @Override
+    public void rename(final Path oldPath, final Path newPath) throws IOException {
+        throw new IOException();
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private synchronized void acquire() throws IOException {
+        if (referenceCount <= 0) {
+            throw new IOException("File system has been closed.");
+        }
+        referenceCount++;
+    }
+
+    private void release() throws IOException {
+        synchronized (this) {
+            if (referenceCount <= 0 || --referenceCount > 0) {
+                return;
+            }
+        }
+
+        try {
+            zipFile.close();
+        } finally {
+            if (temporaryFile != null && !temporaryFile.delete()) {
+                temporaryFile.deleteOnExit();
+            }
+        }
+    }
+
+    private void addEntry(final ZipEntry entry) {
+        final ArrayList<String> parts = new ArrayList<>();
+        for (final String part : entry.getName().split("/")) {
+            if (!part.isEmpty() && !".".equals(part)) {
+                parts.add(part);
+            }
+        }
+
+        if (parts.isEmpty()) {
+            return;
+        }
+
+        DirectoryNode parent = root;
+        for (int i = 0; i < parts.size() - 1; i++) {
+            parent = parent.getOrCreateDirectory(parts.get(i));
+        }
+
+        final String name = parts.get(parts.size() - 1);
+        if (entry.isDirectory()) {
+            parent.getOrCreateDirectory(name).entry = entry;
+        } else {
+            parent.children.put(name, new FileNode(entry));
+            fileCount++;
+        }
+    }
+
+    @Nullable
+    private Node getNode(final Path path) {
+        Node node = root;
+        for (final String part : path.getParts()) {
+            if (!(node instanceof DirectoryNode)) {
+                return null;
+            }
+            node = ((DirectoryNode) node).children.get(part);
+        }
+        return node;
+    }
+
+    private Node getNodeOrThrow(final Path path) throws FileNotFoundException {
+        final Node node = getNode(path);
+        if (node == null) {
+            throw new FileNotFoundException();
+        }
+        return node;
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private abstract class Node implements BasicFileAttributes {
+        public final long id = nextNodeId++;
+        @Nullable public ZipEntry entry;
+
+        protected Node(@Nullable final ZipEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return entry != null ? FileTime.fromMillis(Math.max(0, entry.getTime())) : FileTime.fromMillis(0);
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return lastModifiedTime();
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return lastModifiedTime();
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return false;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        @Override
+        public Object fileKey() {
+            return id;
+        }
+    }
+
+    private final class DirectoryNode extends Node {
+        public final TreeMap<String, Node> children = new TreeMap<>();
+
+        public DirectoryNode() {
+            super(null);
+        }
+
+        public DirectoryNode getOrCreateDirectory(final String name) {
+            final Node child = children.get(name);
+            if (child instanceof DirectoryNode) {
+                return (DirectoryNode) child;
+            }
+
+            final DirectoryNode directory = new DirectoryNode();
+            children.put(name, directory);
+            return directory;
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return false;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return true;
+        }
+
+        @Override
+        public long size() {
+            return 0;
+        }
+    }
+
+    private final class FileNode extends Node {
+        public FileNode(final ZipEntry entry) {
+            super(entry);
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return true;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return entry != null ? Math.max(0, entry.getSize()) : 0;
+        }
+    }
+
+    private static final class DirectoryFileHandle implements FileHandle {
+        private final DirectoryNode node;
+
+        public DirectoryFileHandle(final DirectoryNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public int read(final long offset, final ByteBuffer buffer) throws IOException {
+            throw new IOException();
+        }
+
+        @Override
+        public int write(final long offset, final ByteBuffer buffer) throws IOException {
+            throw new IOException();
+        }
+
+        @Override
+        public List<DirectoryEntry> readdir() {
+            final ArrayList<DirectoryEntry> entries = new ArrayList<>();
+            node.children.forEach((name, child) -> {
+                final DirectoryEntry entry = new DirectoryEntry();
+                entry.name = name;
+                entry.type = child.isDirectory() ? FileType.DIRECTORY : FileType.FILE;
+                entries.add(entry);
+            });
+            return entries;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Reads the contents of a single zip entry.
+     * <p>
+     * Compressed entries can only be read front to back, so we keep the stream open between
+     * reads. Sequential reads continue where the last one ended, reads before the current
+     * position reopen the stream.
+     * <p>
+     * Each handle holds a reference to the file system, keeping the archive open until the
+     * handle is closed.
+     */
+    private final class EntryFileHandle implements FileHandle {
+        private final FileNode node;
+        @Nullable private InputStream stream;
+        private long position;
+        private boolean isClosed;
+
+        public EntryFileHandle(final FileNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public int read(final long offset, final ByteBuffer buffer) throws IOException {
+            if (isClosed) {
+                throw new IOException("File has been closed.");
+            }
+
+            if (offset >= node.size() || node.entry == null) {
+                return 0;
+            }
+
+            if (stream == null || offset < position) {
+                closeStream();
+                try {
+                    stream = zipFile.getInputStream(node.entry);
+                } catch (final IllegalStateException e) {
+                    // Thrown by ZipFile if it has been closed.
+                    throw new IOException(e);
+                }
+                position = 0;
+            }
+
+            while (position < offset) {
+                final long skipped = stream.skip(offset - position);
+                if (skipped <= 0) {
+                    return 0;
+                }
+                position += skipped;
+            }
+
+            final byte[] chunk = new byte[Math.min(buffer.remaining(), READ_CHUNK_SIZE)];
+            int total = 0;
+            while (buffer.hasRemaining()) {
+                final int count = stream.read(chunk, 0, Math.min(chunk.length, buffer.remaining()));
+                if (count < 0) {
+                    break;
+                }
+                buffer.put(chunk, 0, count);
+                position += count;
+                total += count;
+            }
+
+            return total;
+        }
+
+        @Override
+        public int write(final long offset, final ByteBuffer buffer) throws IOException {
+            throw new IOException();
+        }
+
+        @Override
+        public List<DirectoryEntry> readdir() throws IOException {
+            throw new IOException();
+        }
+
+        @Override
+        public void close() {
+            if (isClosed) {
+                return;
+            }
+
+            isClosed = true;
+            closeStream();
+            try {
+                release();
+            } catch (final IOException ignored) {
+            }
+        }
+
+        private void closeStream() {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (final IOException ignored) {
+                }
+                stream = null;
+            }
+        }
+    }
+}
@@ -43,6 +43,7 @@ public final class ModItemModelProvider extends ItemModelProvider {
         simple(Items.NETWORK_INTERFACE_CARD);
         simple(Items.FILE_IMPORT_EXPORT_CARD);
         simple(Items.SOUND_CARD);
+        simple(Items.SHARED_FOLDER_CARD);
 
         simple(Items.INVENTORY_OPERATIONS_MODULE);
         simple(Items.BLOCK_OPERATIONS_MODULE);
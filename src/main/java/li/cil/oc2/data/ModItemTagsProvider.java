@@ -55,7 +55,8 @@ public final class ModItemTagsProvider extends ItemTagsProvider {
                 Items.REDSTONE_INTERFACE_CARD.get(),
                 Items.NETWORK_INTERFACE_CARD.get(),
                 Items.FILE_IMPORT_EXPORT_CARD.get(),
-                Items.SOUND_CARD.get()
+                Items.SOUND_CARD.get(),
+                Items.SHARED_FOLDER_CARD.get()
         );
         tag(DEVICES_ROBOT_MODULE).add(
                 Items.INVENTORY_OPERATIONS_MODULE.get(),
@@ -102,6 +103,7 @@ public final class ModItemTagsProvider extends ItemTagsProvider {
                 Items.FLASH_MEMORY.get(),
                 Items.FLASH_MEMORY_CUSTOM.get(),
                 Items.NETWORK_INTERFACE_CARD.get(),
+                Items.SHARED_FOLDER_CARD.get(),
                 Items.DISK_DRIVE.get()
         );
     }
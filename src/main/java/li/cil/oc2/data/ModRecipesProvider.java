@@ -291,6 +291,17 @@ public final class ModRecipesProvider extends RecipeProvider {
                 .unlockedBy("has_computer", inventoryChange(Items.COMPUTER.get()))
                 .save(consumer);
 
+        ShapedRecipeBuilder
+                .shaped(Items.SHARED_FOLDER_CARD.get())
+                .pattern("ICT")
+                .pattern(" B ")
+                .define('C', Tags.Items.CHESTS_WOODEN)
+                .define('I', Tags.Items.INGOTS_IRON)
+                .define('T', Items.TRANSISTOR.get())
+                .define('B', Items.CIRCUIT_BOARD.get())
+                .unlockedBy("has_computer", inventoryChange(Items.COMPUTER.get()))
+                .save(consumer);
+
         ShapedRecipeBuilder
                 .shaped(Items.FLOPPY.get())
                 .pattern("ITI")
@@ -23,7 +23,8 @@ io.flush()
 device:beginExportFile(arg[1])
 
 while true do
-    local str = file:read(512)
+    -- Largest chunk whose encoding always fits into a single bus message.
+    local str = file:read(896)
     if not str then break end
     if #str > 0 then
         local bytes = {string.byte(str, 1, -1)}
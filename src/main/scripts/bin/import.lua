@@ -1,8 +1,16 @@
 #!/usr/bin/lua
 
 local devices = require("devices")
+local time = require("posix.time")
 local device = devices:find("file_import_export")
 
+-- Request large chunks, the device will limit this to what it supports.
+local chunk_size = 64 * 1024
+
+local function wait()
+    time.nanosleep({ tv_sec = 0, tv_nsec = 50 * 1000 * 1000 })
+end
+
 if not device then
     io.write("A File Import/Export Card is required for this functionality.\n")
     return
@@ -23,6 +31,7 @@ while true do
         size = info.size
         break
     end
+    wait()
 end
 
 local function file_exists(path)
@@ -58,13 +67,15 @@ local file = assert(io.open(name, "wb"))
 local readCount = 0
 local lastPrintedPercent = 0
 while true do
-    local bytes = device:readImportFile()
+    local bytes = device:readImportFile(chunk_size)
     if not bytes then break end
-    if #bytes > 0 then
+    if #bytes == 0 then
+        wait()
+    else
         file:write(string.char(table.unpack(bytes)))
 
         readCount = readCount + #bytes
-        local percent = math.floor(100 * readCount / size)
+        local percent = size > 0 and math.floor(100 * readCount / size) or 100
         if percent >= lastPrintedPercent + 5 then
             io.write("\n" .. percent .. "% ")
             lastPrintedPercent = percent
@@ -69,10 +69,19 @@ function Device:invoke(methodName, ...)
   return self.bus:invoke(self.deviceId, methodName, ...)
 end
 
+function Device:subscribe()
+  return self.bus:subscribe(self.deviceId)
+end
+
+function Device:unsubscribe()
+  return self.bus:unsubscribe(self.deviceId)
+end
+
 local DeviceBus = {}
 DeviceBus.__index = DeviceBus
 
 local message_delimiter = string.char(0)
+local read_size = 64 * 1024
 
 local function parseError(result, reason)
   if result and result.type == "error" then
@@ -88,7 +97,7 @@ local function skipInput(bus)
   repeat
     local result, status, errnum = poll.rpoll(bus.fd, 0)
     if result == 1 then
-      unistd.read(bus.fd, 1024)
+      unistd.read(bus.fd, read_size)
     end
   until result ~= 1
 end
@@ -100,7 +109,7 @@ local function fillBuffer(bus)
   elseif result == 0 then
     return nil, "timeout"
   else
-    bus.buffer = unistd.read(bus.fd, 1024)
+    bus.buffer = unistd.read(bus.fd, read_size)
     bus.bufferLen = string.len(bus.buffer)
     bus.bufferPos = 1
     return true
@@ -111,46 +120,46 @@ local function clearBuffer(bus)
     bus.buffer = nil
 end
 
-local function readOne(bus)
-  if not bus.buffer then
-    local result, status = fillBuffer(bus)
-    if not result then
-      return result, status
+local function readMessage(bus, acceptEvents)
+  -- Collect message in parts and join them once complete. Messages can be large, e.g.
+  -- when transferring file data, so appending to a string as we go is too slow.
+  local parts = {}
+  while true do
+    if not bus.buffer then
+      local result, status = fillBuffer(bus)
+      if not result then
+        return result, status
+      end
     end
-  end
 
-  local result = bus.buffer:byte(bus.bufferPos)
-  if bus.bufferPos >= bus.bufferLen then
-    bus.buffer = nil
-  else
-    bus.bufferPos = bus.bufferPos + 1
-  end
-
-  return result
-end
+    local delimiterPos = bus.buffer:find(message_delimiter, bus.bufferPos, true)
+    if delimiterPos then
+      parts[#parts + 1] = bus.buffer:sub(bus.bufferPos, delimiterPos - 1)
+      if delimiterPos >= bus.bufferLen then
+        bus.buffer = nil
+      else
+        bus.bufferPos = delimiterPos + 1
+      end
 
-local function readMessage(bus)
-  local value
-  local message = ""
-  while true do
-    value, reason = readOne(bus)
-    if value == nil then -- error
-      return value, reason
-    else
-      if value == 0 then
-        if message:match("%S") ~= nil then
-          local ok, result = pcall(cjson.decode, message)
-          if ok then
+      local message = table.concat(parts)
+      if message:match("%S") ~= nil then
+        local ok, result = pcall(cjson.decode, message)
+        if ok then
+          -- Events are only ever sent in reply to a pull. If a pull was abandoned its late
+          -- reply must not be mistaken for the reply to a later request, so skip it.
+          if result.type ~= "events" or acceptEvents then
             return result
-          else
-            return nil, result
           end
+          parts = {}
         else
-          message = ""
+          return nil, result
         end
       else
-        message = message .. string.char(value)
+        parts = {}
       end
+    else
+      parts[#parts + 1] = bus.buffer:sub(bus.bufferPos)
+      bus.buffer = nil
     end
   end
 end
@@ -251,4 +260,35 @@ function DeviceBus:invoke(deviceId, methodName, ...)
   end
 end
 
+function DeviceBus:subscribe(deviceId)
+  self:flush()
+  writeMessage(self, { type = "subscribe", data = deviceId })
+  local result, reason = readMessage(self)
+  if not result or result.type ~= "result" then
+    error(parseError(result, reason))
+  end
+end
+
+function DeviceBus:unsubscribe(deviceId)
+  self:flush()
+  writeMessage(self, { type = "unsubscribe", data = deviceId })
+  local result, reason = readMessage(self)
+  if not result or result.type ~= "result" then
+    error(parseError(result, reason))
+  end
+end
+
+-- Blocks until at least one event of a subscribed device arrived, then returns
+-- all queued events as a list of { deviceId, name, data } tables.
+function DeviceBus:pullEvents()
+  self:flush()
+  writeMessage(self, { type = "events" })
+  local result, reason = readMessage(self, true)
+  if result and result.type == "events" then
+    return result.data
+  else
+    error(parseError(result, reason))
+  end
+end
+
 return DeviceBus:new("/dev/hvc0")
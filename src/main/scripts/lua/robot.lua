@@ -76,4 +76,16 @@ M.turnAsync = function(direction)
   end
 end
 
+M.path = function(steps)
+  M.pathAsync(steps)
+  return waitForLastAction()
+end
+
+M.pathAsync = function(steps)
+  steps = assert(steps, "no steps specified")
+  while not robot:followPath(steps) do
+    sleep(100)
+  end
+end
+
 return M
\ No newline at end of file
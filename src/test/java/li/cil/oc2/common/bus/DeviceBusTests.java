@@ -1,7 +1,9 @@
 package li.cil.oc2.common.bus;
 
 import li.cil.oc2.api.bus.DeviceBusElement;
+import li.cil.oc2.api.bus.device.Device;
 import li.cil.oc2.api.bus.device.rpc.RPCDevice;
+import li.cil.oc2.common.bus.device.util.BlockDeviceInfo;
 import li.cil.oc2.common.capabilities.Capabilities;
 import net.minecraft.util.registry.Bootstrap;
 import net.minecraftforge.common.capabilities.Capability;
@@ -12,13 +14,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.UUID;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class DeviceBusTests {
@@ -93,4 +97,89 @@ public class DeviceBusTests {
         verify(busElement1).addController(busController);
         verify(busElement2).addController(busController);
     }
+
+    @Test
+    public void scanOnlyQueriesChangedElement() {
+        // topology: controller <-> element 1 <-> element 2
+
+        final DeviceBusElement busElement1 = mock(DeviceBusElement.class);
+        final DeviceBusElement busElement2 = mock(DeviceBusElement.class);
+
+        when(busControllerBusElement.getNeighbors()).thenReturn(Optional.of(Collections.singleton(LazyOptional.of(() -> busElement1))));
+        when(busElement1.getNeighbors()).thenReturn(Optional.of(Collections.singleton(LazyOptional.of(() -> busElement2))));
+        when(busElement2.getNeighbors()).thenReturn(Optional.of(Collections.singleton(LazyOptional.of(() -> busElement1))));
+
+        busController.scan();
+        assertEquals(CommonDeviceBusController.BusState.READY, busController.getState());
+
+        busController.scheduleBusScan(busElement2);
+        busController.scan();
+        assertEquals(CommonDeviceBusController.BusState.READY, busController.getState());
+
+        verify(busControllerBusElement, times(1)).getNeighbors();
+        verify(busElement1, times(1)).getNeighbors();
+        verify(busElement2, times(2)).getNeighbors();
+        verify(busElement2, times(1)).addController(busController);
+    }
+
+    @Test
+    public void scanResolvesIdentifiersOfManyDevices() {
+        final int groupCount = 6;
+        final int devicesPerGroup = 100;
+
+        final TestGroupingBusElement busElement = new TestGroupingBusElement(groupCount);
+        final CommonDeviceBusController controller = new CommonDeviceBusController(busElement, 0);
+        controller.scan();
+        assertEquals(CommonDeviceBusController.BusState.READY, controller.getState());
+
+        final ArrayList<HashSet<BlockDeviceInfo>> groups = new ArrayList<>();
+        for (int i = 0; i < groupCount; i++) {
+            final HashSet<BlockDeviceInfo> group = new HashSet<>();
+            for (int j = 0; j < devicesPerGroup; j++) {
+                group.add(new BlockDeviceInfo(null, mock(RPCDevice.class)));
+            }
+            groups.add(group);
+            busElement.setDevices(i, group);
+        }
+
+        assertEquals(groupCount * devicesPerGroup, controller.getDevices().size());
+        for (int i = 0; i < groupCount; i++) {
+            for (final BlockDeviceInfo info : groups.get(i)) {
+                assertEquals(Collections.singleton(busElement.getGroupId(i)), controller.getDeviceIdentifiers(info.device));
+            }
+        }
+
+        final ArrayList<Device> addedDevices = new ArrayList<>();
+        final ArrayList<Device> removedDevices = new ArrayList<>();
+        controller.onDevicesAdded.add(event -> addedDevices.addAll(event.devices));
+        controller.onDevicesRemoved.add(event -> removedDevices.addAll(event.devices));
+
+        final HashSet<BlockDeviceInfo> replacement = new HashSet<>();
+        replacement.add(new BlockDeviceInfo(null, mock(RPCDevice.class)));
+        busElement.setDevices(0, replacement);
+
+        assertEquals(1, addedDevices.size());
+        assertEquals(devicesPerGroup, removedDevices.size());
+        assertEquals((groupCount - 1) * devicesPerGroup + 1, controller.getDevices().size());
+        for (final BlockDeviceInfo info : groups.get(0)) {
+            assertFalse(controller.getDevices().contains(info.device));
+            assertFalse(busElement.getDeviceIdentifier(info.device).isPresent());
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final class TestGroupingBusElement extends AbstractGroupingBlockDeviceBusElement {
+        public TestGroupingBusElement(final int groupCount) {
+            super(groupCount);
+        }
+
+        public void setDevices(final int index, final HashSet<BlockDeviceInfo> devices) {
+            setDevicesForGroup(index, devices);
+        }
+
+        public UUID getGroupId(final int index) {
+            return groupIds[index];
+        }
+    }
 }
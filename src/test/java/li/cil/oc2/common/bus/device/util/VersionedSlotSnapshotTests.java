@@ -0,0 +1,149 @@
+package li.cil.oc2.common.bus.device.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class VersionedSlotSnapshotTests {
+    private VersionedSlotSnapshot<String> snapshot;
+    private List<String> slots;
+
+    @BeforeEach
+    public void setupEach() {
+        snapshot = new VersionedSlotSnapshot<>(Objects::equals, UnaryOperator.identity());
+        slots = new ArrayList<>(Arrays.asList("a", "b", "c"));
+    }
+
+    @Test
+    public void firstCallReturnsAllSlots() {
+        final VersionedSlotSnapshot.Changes<String> changes = query(0);
+
+        assertNotEquals(0, changes.version);
+        assertEquals(3, changes.size);
+        assertSlots(changes, 0, "a", 1, "b", 2, "c");
+    }
+
+    @Test
+    public void unchangedCallReturnsNoSlots() {
+        final long version = query(0).version;
+
+        final VersionedSlotSnapshot.Changes<String> changes = query(version);
+
+        assertEquals(version, changes.version);
+        assertEquals(3, changes.size);
+        assertTrue(changes.slots.isEmpty());
+    }
+
+    @Test
+    public void changedSlotIsReturned() {
+        final long version = query(0).version;
+
+        slots.set(1, "x");
+        final VersionedSlotSnapshot.Changes<String> changes = query(version);
+
+        assertTrue(changes.version > version);
+        assertSlots(changes, 1, "x");
+    }
+
+    @Test
+    public void clearedSlotIsReturned() {
+        final long version = query(0).version;
+
+        slots.set(2, null);
+        final VersionedSlotSnapshot.Changes<String> changes = query(version);
+
+        assertTrue(changes.version > version);
+        assertSlots(changes, 2, null);
+    }
+
+    @Test
+    public void olderVersionIncludesLaterChanges() {
+        final long first = query(0).version;
+        slots.set(0, "x");
+        query(first);
+        slots.set(2, "y");
+        query(first);
+
+        assertSlots(query(first), 0, "x", 2, "y");
+    }
+
+    @Test
+    public void shrinkingIsAChange() {
+        final long version = query(0).version;
+
+        slots.remove(2);
+        final VersionedSlotSnapshot.Changes<String> changes = query(version);
+
+        assertTrue(changes.version > version);
+        assertEquals(2, changes.size);
+        assertTrue(changes.slots.isEmpty());
+    }
+
+    @Test
+    public void growingReturnsNewSlots() {
+        final long version = query(0).version;
+
+        slots.add("d");
+        final VersionedSlotSnapshot.Changes<String> changes = query(version);
+
+        assertTrue(changes.version > version);
+        assertEquals(4, changes.size);
+        assertSlots(changes, 3, "d");
+    }
+
+    @Test
+    public void newSnapshotReportsAllSlotsForOldVersion() {
+        final long version = query(0).version;
+
+        snapshot = new VersionedSlotSnapshot<>(Objects::equals, UnaryOperator.identity());
+
+        assertSlots(query(version), 0, "a", 1, "b", 2, "c");
+    }
+
+    @Test
+    public void rangeOnlyReturnsSlotsInRange() {
+        snapshot.update(slots.size(), slots::get);
+
+        assertSlots(snapshot.getChangesSince(0, 1, 1), 1, "b");
+        assertSlots(snapshot.getChangesSince(0, 1, 10), 1, "b", 2, "c");
+        assertSlots(snapshot.getChangesSince(0, -1, 2), 0, "a");
+        assertTrue(snapshot.getChangesSince(0, 5, 2).slots.isEmpty());
+        assertTrue(snapshot.getChangesSince(0, 0, -1).slots.isEmpty());
+    }
+
+    @Test
+    public void rangeOnlyReturnsChangedSlotsInRange() {
+        final long version = query(0).version;
+
+        slots.set(0, "x");
+        slots.set(2, "y");
+        snapshot.update(slots.size(), slots::get);
+        final VersionedSlotSnapshot.Changes<String> changes = snapshot.getChangesSince(version, 1, 2);
+
+        assertEquals(3, changes.size);
+        assertSlots(changes, 2, "y");
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private VersionedSlotSnapshot.Changes<String> query(final long version) {
+        snapshot.update(slots.size(), slots::get);
+        return snapshot.getChangesSince(version);
+    }
+
+    private static void assertSlots(final VersionedSlotSnapshot.Changes<String> changes, final Object... expected) {
+        assertEquals(expected.length / 2, changes.slots.size());
+        for (int i = 0; i < changes.slots.size(); i++) {
+            final VersionedSlotSnapshot.Slot<String> slot = changes.slots.get(i);
+            assertEquals(expected[i * 2], slot.slot);
+            assertEquals(expected[i * 2 + 1], slot.value);
+        }
+    }
+}
@@ -169,6 +169,52 @@ public final class SerializationTests {
         assertNull(value.child.child);
     }
 
+    @Test
+    public void testSerializeEnumArray() {
+        final WithEnumArray value = new WithEnumArray();
+        value.enumArrayValue = new TestEnum[]{TestEnum.C, null, TestEnum.A};
+
+        final CompoundNBT nbt = assertDoesNotThrow(() -> NBTSerialization.serialize(value));
+
+        assertArrayEquals(new int[]{2, -1, 0}, nbt.getIntArray("enumArrayValue"));
+    }
+
+    @Test
+    public void testEnumArrayRoundTrip() {
+        final WithEnumArray value = new WithEnumArray();
+        value.enumArrayValue = new TestEnum[]{TestEnum.B, null, TestEnum.C, TestEnum.A};
+
+        final CompoundNBT nbt = assertDoesNotThrow(() -> NBTSerialization.serialize(value));
+        final WithEnumArray deserialized = assertDoesNotThrow(() -> NBTSerialization.deserialize(nbt, WithEnumArray.class, null));
+
+        assertArrayEquals(new TestEnum[]{TestEnum.B, null, TestEnum.C, TestEnum.A}, deserialized.enumArrayValue);
+    }
+
+    @Test
+    public void testDeserializeEnumArrayInto() {
+        final CompoundNBT nbt = new CompoundNBT();
+        nbt.putIntArray("enumArrayValue", new int[]{1, -1});
+
+        final WithEnumArray value = new WithEnumArray();
+        value.enumArrayValue = new TestEnum[]{TestEnum.A, TestEnum.A};
+        final TestEnum[] array = value.enumArrayValue;
+
+        assertDoesNotThrow(() -> NBTSerialization.deserialize(nbt, value));
+
+        assertSame(array, value.enumArrayValue);
+        assertArrayEquals(new TestEnum[]{TestEnum.B, null}, value.enumArrayValue);
+    }
+
+    @Test
+    public void testDeserializeEnumArrayUnknownOrdinal() {
+        final CompoundNBT nbt = new CompoundNBT();
+        nbt.putIntArray("enumArrayValue", new int[]{0, 3, -2});
+
+        final WithEnumArray value = assertDoesNotThrow(() -> NBTSerialization.deserialize(nbt, WithEnumArray.class, null));
+
+        assertArrayEquals(new TestEnum[]{TestEnum.A, null, null}, value.enumArrayValue);
+    }
+
     @Serialized
     private static final class Flat {
         private byte byteValue;
@@ -197,4 +243,13 @@ public final class SerializationTests {
         private int value;
         private Nested child;
     }
+
+    private enum TestEnum {
+        A, B, C
+    }
+
+    @Serialized
+    private static final class WithEnumArray {
+        private TestEnum[] enumArrayValue;
+    }
 }
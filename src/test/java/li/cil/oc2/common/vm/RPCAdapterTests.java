@@ -7,6 +7,8 @@ import li.cil.oc2.api.bus.device.object.Callback;
 import li.cil.oc2.api.bus.device.object.ObjectDevice;
 import li.cil.oc2.api.bus.device.object.Parameter;
 import li.cil.oc2.api.bus.device.rpc.RPCDevice;
+import li.cil.oc2.api.bus.device.rpc.RPCEventListener;
+import li.cil.oc2.api.bus.device.rpc.RPCEventSource;
 import li.cil.oc2.api.bus.device.rpc.RPCMethod;
 import li.cil.oc2.common.bus.RPCDeviceBusAdapter;
 import li.cil.sedna.api.device.serial.SerialDevice;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.Test;
 
 import javax.annotation.Nullable;
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -95,6 +98,51 @@ public class RPCAdapterTests {
         assertEquals(42 + 23, invokeMethod(DEVICE_UUID, "add", 42, 23).getAsInt());
     }
 
+    @Test
+    public void subscribedEventsAreDeliveredOnPull() {
+        final EventObject object = new EventObject();
+        final ObjectDevice device = new ObjectDevice(object);
+        setDevice(device, DEVICE_UUID);
+
+        final JsonObject subscribe = new JsonObject();
+        subscribe.addProperty("type", "subscribe");
+        subscribe.addProperty("data", DEVICE_UUID.toString());
+        serialDevice.putAsVM(subscribe.toString());
+        rpcAdapter.step(0);
+
+        final String subscribeResult = serialDevice.readMessageAsVM();
+        assertNotNull(subscribeResult);
+        assertEquals("result", new JsonParser().parse(subscribeResult).getAsJsonObject().get("type").getAsString());
+        assertEquals(1, object.listeners.size());
+
+        final JsonObject pull = new JsonObject();
+        pull.addProperty("type", "events");
+        serialDevice.putAsVM(pull.toString());
+        rpcAdapter.step(0);
+
+        // No events yet, so the pull stays pending.
+        assertNull(serialDevice.readMessageAsVM());
+
+        object.publish("changed", 42);
+        rpcAdapter.step(0);
+
+        final String events = serialDevice.readMessageAsVM();
+        assertNotNull(events);
+        final JsonObject eventsJson = new JsonParser().parse(events).getAsJsonObject();
+        assertEquals("events", eventsJson.get("type").getAsString());
+
+        final JsonArray eventsArray = eventsJson.getAsJsonArray("data");
+        assertEquals(1, eventsArray.size());
+
+        final JsonObject eventJson = eventsArray.get(0).getAsJsonObject();
+        assertEquals(DEVICE_UUID.toString(), eventJson.get("deviceId").getAsString());
+        assertEquals("changed", eventJson.get("name").getAsString());
+        assertEquals(42, eventJson.get("data").getAsInt());
+
+        rpcAdapter.reset();
+        assertTrue(object.listeners.isEmpty());
+    }
+
     private void setDevice(final RPCDevice device, final UUID deviceId) {
         when(busController.getDevices()).thenReturn(singleton(device));
         when(busController.getDeviceIdentifiers(device)).thenReturn(singleton(deviceId));
@@ -168,6 +216,30 @@ public class RPCAdapterTests {
         }
     }
 
+    public static final class EventObject implements RPCEventSource {
+        public final List<RPCEventListener> listeners = new ArrayList<>();
+
+        public void publish(final String name, final Object data) {
+            for (final RPCEventListener listener : listeners) {
+                listener.handleEvent(name, data);
+            }
+        }
+
+        @Callback(synchronize = false)
+        public void nop() {
+        }
+
+        @Override
+        public void addEventListener(final RPCEventListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeEventListener(final RPCEventListener listener) {
+            listeners.remove(listener);
+        }
+    }
+
     private static final class TestSerialDevice implements SerialDevice {
         private final ByteArrayFIFOQueue transmit = new ByteArrayFIFOQueue();
         private final ByteArrayFIFOQueue receive = new ByteArrayFIFOQueue();
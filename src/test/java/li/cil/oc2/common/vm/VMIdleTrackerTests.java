@@ -0,0 +1,90 @@
+package li.cil.oc2.common.vm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class VMIdleTrackerTests {
+    private static final int CYCLES_PER_STEP = 1000;
+    private static final int STEPS_PER_TICK = 100;
+    private static final int HIBERNATE_AFTER_TICKS = 20;
+
+    private static final long BUSY_NANOS_PER_STEP = 10_000;
+    private static final long WAITING_NANOS_PER_STEP = 50;
+
+    private VMIdleTracker tracker;
+
+    @BeforeEach
+    public void setupEach() {
+        tracker = new VMIdleTracker();
+    }
+
+    @Test
+    public void busyLoopWithoutActivityIsNeverHibernated() {
+        for (int tick = 0; tick < HIBERNATE_AFTER_TICKS * 10; tick++) {
+            runTimeslice(BUSY_NANOS_PER_STEP);
+            assertFalse(tracker.update(false, HIBERNATE_AFTER_TICKS));
+        }
+    }
+
+    @Test
+    public void waitingGuestIsHibernated() {
+        for (int tick = 1; tick < HIBERNATE_AFTER_TICKS; tick++) {
+            runTimeslice(WAITING_NANOS_PER_STEP);
+            assertFalse(tracker.update(false, HIBERNATE_AFTER_TICKS));
+        }
+
+        runTimeslice(WAITING_NANOS_PER_STEP);
+        assertTrue(tracker.update(false, HIBERNATE_AFTER_TICKS));
+    }
+
+    @Test
+    public void mostlyBusyGuestIsNotHibernated() {
+        for (int tick = 0; tick < HIBERNATE_AFTER_TICKS * 10; tick++) {
+            runTimeslice(WAITING_NANOS_PER_STEP);
+            runTimeslice(BUSY_NANOS_PER_STEP);
+            assertFalse(tracker.update(false, HIBERNATE_AFTER_TICKS));
+        }
+    }
+
+    @Test
+    public void activityResetsIdleTime() {
+        for (int tick = 0; tick < HIBERNATE_AFTER_TICKS * 10; tick++) {
+            runTimeslice(WAITING_NANOS_PER_STEP);
+            assertFalse(tracker.update(tick % (HIBERNATE_AFTER_TICKS / 2) == 0, HIBERNATE_AFTER_TICKS));
+        }
+    }
+
+    @Test
+    public void ticksWithoutCyclesDoNotCount() {
+        for (int tick = 0; tick < HIBERNATE_AFTER_TICKS * 10; tick++) {
+            assertFalse(tracker.update(false, HIBERNATE_AFTER_TICKS));
+        }
+    }
+
+    @Test
+    public void resetClearsIdleTime() {
+        for (int tick = 1; tick < HIBERNATE_AFTER_TICKS; tick++) {
+            runTimeslice(WAITING_NANOS_PER_STEP);
+            tracker.update(false, HIBERNATE_AFTER_TICKS);
+        }
+
+        tracker.reset();
+
+        runTimeslice(WAITING_NANOS_PER_STEP);
+        assertFalse(tracker.update(false, HIBERNATE_AFTER_TICKS));
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private void runTimeslice(final long nanosPerStep) {
+        long waitingCycles = 0;
+        for (int i = 0; i < STEPS_PER_TICK; i++) {
+            if (VMIdleTracker.isWaiting(CYCLES_PER_STEP, nanosPerStep)) {
+                waitingCycles += CYCLES_PER_STEP;
+            }
+        }
+        tracker.recordTimeslice((long) CYCLES_PER_STEP * STEPS_PER_TICK, waitingCycles);
+    }
+}
@@ -0,0 +1,186 @@
+package li.cil.oc2.common.vm.context.global;
+
+import com.google.common.eventbus.Subscribe;
+import li.cil.oc2.api.bus.device.vm.event.VMInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("UnstableApiUsage")
+public final class GlobalEventBusTests {
+    private GlobalEventBus eventBus;
+
+    @BeforeEach
+    public void setupEach() {
+        eventBus = new GlobalEventBus();
+    }
+
+    @Test
+    public void directSubscriberIsCalled() {
+        final DirectSubscriber subscriber = new DirectSubscriber();
+        eventBus.register(subscriber);
+
+        eventBus.post(new TestEvent());
+
+        assertEquals(1, subscriber.count);
+    }
+
+    @Test
+    public void inheritedSubscriberIsCalled() {
+        final InheritingSubscriber subscriber = new InheritingSubscriber();
+        eventBus.register(subscriber);
+
+        eventBus.post(new TestEvent());
+
+        assertEquals(1, subscriber.count);
+    }
+
+    @Test
+    public void interfaceSubscriberIsCalled() {
+        final InterfaceSubscriber subscriber = new InterfaceSubscriber();
+        eventBus.register(subscriber);
+
+        eventBus.post(new TestEvent());
+
+        assertEquals(1, subscriber.count);
+    }
+
+    @Test
+    public void overriddenSubscriberIsCalledOnce() {
+        final OverridingSubscriber subscriber = new OverridingSubscriber();
+        eventBus.register(subscriber);
+
+        eventBus.post(new TestEvent());
+
+        assertEquals(0, subscriber.count);
+        assertEquals(1, subscriber.overrideCount);
+    }
+
+    @Test
+    public void unregisteredSubscriberIsNotCalled() {
+        final DirectSubscriber subscriber = new DirectSubscriber();
+        eventBus.register(subscriber);
+        eventBus.unregister(subscriber);
+
+        eventBus.post(new TestEvent());
+
+        assertEquals(0, subscriber.count);
+    }
+
+    @Test
+    public void initializationExceptionIsRethrown() {
+        final DirectSubscriber subscriber = new DirectSubscriber();
+        eventBus.register(new ThrowingSubscriber());
+        eventBus.register(subscriber);
+
+        assertThrows(VMInitializationException.class, () -> eventBus.post(new TestEvent()));
+        assertEquals(1, subscriber.count);
+    }
+
+    @Test
+    public void otherExceptionsAreNotRethrown() {
+        eventBus.register(new Object() {
+            @Subscribe
+            public void handleEvent(final TestEvent event) {
+                throw new IllegalStateException();
+            }
+        });
+
+        assertDoesNotThrow(() -> eventBus.post(new TestEvent()));
+    }
+
+    @Test
+    public void nestedPostsAreQueued() {
+        final List<String> events = new ArrayList<>();
+        eventBus.register(new Object() {
+            @Subscribe
+            public void handleTestEvent(final TestEvent event) {
+                events.add("outer begin");
+                eventBus.post(new OtherEvent());
+                events.add("outer end");
+            }
+
+            @Subscribe
+            public void handleOtherEvent(final OtherEvent event) {
+                events.add("nested");
+            }
+        });
+
+        eventBus.post(new TestEvent());
+
+        assertEquals(Arrays.asList("outer begin", "outer end", "nested"), events);
+    }
+
+    @Test
+    public void nestedInitializationExceptionIsRethrownByOuterPost() {
+        eventBus.register(new Object() {
+            @Subscribe
+            public void handleTestEvent(final TestEvent event) {
+                eventBus.post(new OtherEvent());
+            }
+
+            @Subscribe
+            public void handleOtherEvent(final OtherEvent event) {
+                throw new VMInitializationException();
+            }
+        });
+
+        assertThrows(VMInitializationException.class, () -> eventBus.post(new TestEvent()));
+        assertDoesNotThrow(() -> eventBus.post(new Object()));
+    }
+
+    ///////////////////////////////////////////////////////////////////
+
+    private static final class TestEvent {
+    }
+
+    private static final class OtherEvent {
+    }
+
+    private static class DirectSubscriber {
+        public int count;
+
+        @Subscribe
+        public void handleEvent(final TestEvent event) {
+            count++;
+        }
+    }
+
+    private static final class InheritingSubscriber extends DirectSubscriber {
+    }
+
+    private static final class OverridingSubscriber extends DirectSubscriber {
+        public int overrideCount;
+
+        @Override
+        public void handleEvent(final TestEvent event) {
+            overrideCount++;
+        }
+    }
+
+    private interface TestEventHandler {
+        @Subscribe
+        void handleEvent(final TestEvent event);
+    }
+
+    private static final class InterfaceSubscriber implements TestEventHandler {
+        public int count;
+
+        @Override
+        public void handleEvent(final TestEvent event) {
+            count++;
+        }
+    }
+
+    private static final class ThrowingSubscriber {
+        @Subscribe
+        public void handleEvent(final TestEvent event) {
+            throw new VMInitializationException();
+        }
+    }
+}